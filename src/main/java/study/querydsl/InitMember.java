@@ -4,22 +4,40 @@ import jakarta.annotation.PostConstruct;
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.PersistenceContext;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Profile;
 import org.springframework.stereotype.Component;
 import org.springframework.transaction.annotation.Transactional;
+import study.querydsl.config.MemberSeedProperties;
 import study.querydsl.domain.Member;
 import study.querydsl.domain.Team;
+import study.querydsl.service.MemberDataGenerator;
+import study.querydsl.service.MemberIngestService;
 
+@Slf4j
 @Profile("local")
 @Component
 @RequiredArgsConstructor
+@EnableConfigurationProperties(MemberSeedProperties.class)
 public class InitMember {
 //PostConstruct와 Transactional은 spring lifeCycle에 의해 둘을 같이 쓸 수 없음!!! → PostConstruct하는 부분과 Transactional 부분을 분리해서 사용해야 함
     private final InitMemberService initMemberService;
+    private final MemberIngestService memberIngestService;
+    private final MemberSeedProperties seed;
 
     @PostConstruct
     public void init() {
-        initMemberService.init();
+        if (!seed.isGenerate()) {
+            initMemberService.init();
+            return;
+        }
+
+        //대량 데이터는 영속성 컨텍스트를 거치지 않고 StatelessSession batch insert로 넣는다
+        long start = System.currentTimeMillis();
+        MemberDataGenerator generator = new MemberDataGenerator(seed.getTeams(), seed.getRandomSeed());
+        long count = memberIngestService.ingest(generator.rows(0, seed.getMembers()));
+        log.info("seeded {} members across {} teams in {}ms", count, seed.getTeams(), System.currentTimeMillis() - start);
     }
 
     @Component
@@ -4,13 +4,20 @@ import com.querydsl.jpa.impl.JPAQueryFactory;
 import jakarta.persistence.EntityManager;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.context.metrics.buffering.BufferingApplicationStartup;
 import org.springframework.context.annotation.Bean;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
+@EnableScheduling
 public class QuerydslApplication {
 
 	public static void main(String[] args) {
-		SpringApplication.run(QuerydslApplication.class, args);
+		SpringApplication application = new SpringApplication(QuerydslApplication.class);
+		//기동 단계별 시간 기록 (startup.report.enabled=true 면 StartupTimingReporter가 출력)
+		application.setApplicationStartup(new BufferingApplicationStartup(4096));
+		application.run(args);
 	}
 
 
@@ -18,4 +25,10 @@ public class QuerydslApplication {
 	JPAQueryFactory jpaQueryFactory(EntityManager em) {
 		return new JPAQueryFactory(em);
 	}
+
+	//Accept: application/x-jackson-smile 요청은 바이너리(Smile)로 응답, 그 외에는 기존 JSON 그대로
+	@Bean
+	MappingJackson2SmileHttpMessageConverter smileHttpMessageConverter() {
+		return new MappingJackson2SmileHttpMessageConverter();
+	}
 }
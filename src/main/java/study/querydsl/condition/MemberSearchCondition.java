@@ -2,10 +2,16 @@ package study.querydsl.condition;
 
 import lombok.Data;
 
+import static org.springframework.util.StringUtils.hasText;
+
 @Data
 public class MemberSearchCondition {
     private String username;
     private String teamName;
     private Integer ageGoe;
     private Integer ageLoe;
+
+    public boolean hasAnyFilter() {
+        return hasText(username) || hasText(teamName) || ageGoe != null || ageLoe != null;
+    }
 }
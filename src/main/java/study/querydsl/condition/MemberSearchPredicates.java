@@ -0,0 +1,30 @@
+package study.querydsl.condition;
+
+import com.querydsl.core.types.dsl.BooleanExpression;
+import com.querydsl.jpa.JPAExpressions;
+import study.querydsl.domain.QTeam;
+
+import static org.springframework.util.StringUtils.hasText;
+import static study.querydsl.domain.QMember.member;
+
+/**
+ * MemberSearchCondition 조건 중 여러 리포지토리가 같은 모양으로 쓰는 Querydsl 조건.
+ * 값이 없으면 null을 돌려주므로 where(...)에 그대로 넘긴다.
+ */
+public final class MemberSearchPredicates {
+
+    private static final QTeam teamSub = new QTeam("teamSub");
+
+    private MemberSearchPredicates() {
+    }
+
+    /**
+     * team.name = ? 와 같은 결과지만 member.team_id 컬럼만 보므로 team을 join 하지 않은 쿼리(count 등)에서 쓴다.
+     * 팀 이름은 유일하지 않아서 eq가 아니라 in
+     */
+    public static BooleanExpression inTeamNamed(String teamName) {
+        return hasText(teamName)
+                ? member.team.id.in(JPAExpressions.select(teamSub.id).from(teamSub).where(teamSub.name.eq(teamName)))
+                : null;
+    }
+}
@@ -0,0 +1,67 @@
+package study.querydsl.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+
+/**
+ * routing.replica.url 이 설정되면 @Transactional(readOnly = true) 는 replica, 나머지는 primary(spring.datasource)로 보낸다.
+ * 트랜잭션 시작 시점에는 readOnly 여부만 기록하고 실제 커넥션은 첫 쿼리 때 가져와야 하므로
+ * LazyConnectionDataSourceProxy로 감싼다.
+ * p6spy 데코레이터가 이 프록시를 감싸면 readOnly가 정해지기 전에 실제 커넥션을 열어 항상 primary로 가므로
+ * routingDataSource 빈은 데코레이트하지 않는다. (decorator.datasource.exclude-beans, primary/replica 풀은 각각 로깅됨)
+ */
+@Configuration
+@ConditionalOnProperty("routing.replica.url")
+@EnableConfigurationProperties(ReplicaProperties.class)
+public class DataSourceRoutingConfig {
+
+    @Bean
+    DataSource primaryDataSource(DataSourceProperties properties) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName("primary");
+        return dataSource;
+    }
+
+    @Bean
+    DataSource replicaDataSource(ReplicaProperties properties) {
+        HikariDataSource dataSource = DataSourceBuilder.create()
+                .type(HikariDataSource.class)
+                .url(properties.getUrl())
+                .username(properties.getUsername())
+                .password(properties.getPassword())
+                .driverClassName(properties.getDriverClassName())
+                .build();
+        dataSource.setPoolName("replica");
+        dataSource.setReadOnly(true);
+        return dataSource;
+    }
+
+    @Bean
+    ReplicaLagMonitor replicaLagMonitor(@Qualifier("replicaDataSource") DataSource replicaDataSource, ReplicaProperties properties) {
+        return new ReplicaLagMonitor(replicaDataSource, properties.getLagQuery(), properties.getMaxLag());
+    }
+
+    @Bean("routingDataSource")
+    @Primary
+    DataSource dataSource(@Qualifier("primaryDataSource") DataSource primaryDataSource,
+                          @Qualifier("replicaDataSource") DataSource replicaDataSource,
+                          ReplicaLagMonitor replicaLagMonitor) {
+        return routingDataSource(primaryDataSource, replicaDataSource, replicaLagMonitor);
+    }
+
+    public static DataSource routingDataSource(DataSource primary, DataSource replica, ReplicaLagMonitor monitor) {
+        LazyConnectionDataSourceProxy dataSource = new LazyConnectionDataSourceProxy(primary);
+        dataSource.setReadOnlyDataSource(new ReplicaRoutingDataSource(primary, replica, monitor));
+        return dataSource;
+    }
+}
@@ -0,0 +1,76 @@
+package study.querydsl.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@ConfigurationProperties("member.search")
+public class MemberSearchProperties {
+    /**
+     * 검색 쿼리 하나의 최대 실행 시간 (jakarta.persistence.query.timeout)
+     */
+    private Duration queryTimeout = Duration.ofSeconds(3);
+
+    /**
+     * 페이징 없는 검색(search)이 돌려주는 최대 건수. 넘으면 잘라내지 않고 SearchResultTooLargeException
+     */
+    private int maxResults = 1000;
+
+    private Executor executor = new Executor();
+
+    private Admission admission = new Admission();
+
+    private EstimatedTotal estimatedTotal = new EstimatedTotal();
+
+    @Getter
+    @Setter
+    public static class Executor {
+        private int poolSize = 4;
+        private int queueCapacity = 100;
+    }
+
+    /**
+     * 페이징 검색 동시 실행 수 제한 (study.querydsl.limit.AimdLimiter)
+     */
+    @Getter
+    @Setter
+    public static class Admission {
+        private boolean enabled = true;
+        private int initialLimit = 10;
+        private int minLimit = 2;
+        private int maxLimit = 40;
+        /**
+         * 이보다 오래 걸린 요청이 있으면 limit을 줄인다
+         */
+        private Duration latencyThreshold = Duration.ofMillis(500);
+        private double backoffRatio = 0.9;
+    }
+
+    /**
+     * searchPageComplex 의 total을 count 쿼리 대신 통계로 추정 (study.querydsl.repository.MemberCountEstimator)
+     */
+    @Getter
+    @Setter
+    public static class EstimatedTotal {
+        private boolean enabled = false;
+        /**
+         * 추정치가 이보다 작으면 정확한 count를 실행한다
+         */
+        private long exactBelow = 10_000;
+    }
+
+    /**
+     * maxResults를 넘었는지 알 수 있도록 한 건 더 읽는다
+     */
+    public int fetchLimit() {
+        return maxResults + 1;
+    }
+
+    public int queryTimeoutMillis() {
+        return (int) queryTimeout.toMillis();
+    }
+}
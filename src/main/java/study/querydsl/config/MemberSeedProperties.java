@@ -0,0 +1,23 @@
+package study.querydsl.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * local 프로필 초기 데이터 (InitMember).
+ * generate=false(기본)면 예전처럼 teamA/teamB 두 팀에 member0~99를 넣고,
+ * true면 MemberDataGenerator로 teams개 팀에 members명을 batch insert 한다.
+ */
+@Getter
+@Setter
+@ConfigurationProperties("member.seed")
+public class MemberSeedProperties {
+    private boolean generate = false;
+    private int teams = 1_000;
+    private long members = 1_000_000;
+    /**
+     * 같은 값이면 항상 같은 데이터가 만들어진다
+     */
+    private long randomSeed = 42;
+}
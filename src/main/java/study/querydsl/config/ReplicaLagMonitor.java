@@ -0,0 +1,68 @@
+package study.querydsl.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.util.StringUtils;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+
+/**
+ * replica에 주기적으로 접속해서 읽기를 보내도 되는지 판단한다.
+ * 접속이 안 되거나 복제 지연이 maxLag를 넘으면 다시 따라잡을 때까지 읽기도 primary로 보낸다.
+ * 첫 확인이 성공하기 전에는 지연을 모르므로 primary로 보낸다.
+ */
+@Slf4j
+public class ReplicaLagMonitor {
+
+    private final DataSource replica;
+    private final String lagQuery;
+    private final Duration maxLag;
+    private volatile boolean available;
+
+    public ReplicaLagMonitor(DataSource replica, String lagQuery, Duration maxLag) {
+        this.replica = replica;
+        this.lagQuery = lagQuery;
+        this.maxLag = maxLag;
+    }
+
+    public boolean isAvailable() {
+        return available;
+    }
+
+    @Scheduled(fixedDelayString = "${routing.replica.check-interval:1000}")
+    public void check() {
+        boolean result;
+        try (Connection connection = replica.getConnection();
+             Statement statement = connection.createStatement()) {
+            if (StringUtils.hasText(lagQuery)) {
+                result = withinMaxLag(statement);
+            } else {
+                statement.execute("select 1");
+                result = true;
+            }
+        } catch (SQLException e) {
+            log.warn("replica health check failed: {}", e.getMessage());
+            result = false;
+        }
+
+        if (result != available) {
+            log.info("replica routing {}", result ? "resumed" : "suspended, reads go to primary");
+        }
+        available = result;
+    }
+
+    private boolean withinMaxLag(Statement statement) throws SQLException {
+        try (ResultSet rs = statement.executeQuery(lagQuery)) {
+            if (!rs.next()) {
+                return false;
+            }
+            double lagSeconds = rs.getDouble(1);
+            return !rs.wasNull() && lagSeconds * 1000 <= maxLag.toMillis();
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package study.querydsl.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@ConfigurationProperties("routing.replica")
+public class ReplicaProperties {
+    private String url;
+    private String username;
+    private String password;
+    private String driverClassName;
+
+    /**
+     * 복제 지연(초)을 한 컬럼으로 돌려주는 쿼리. 비어 있으면 접속 가능 여부만 확인한다.
+     */
+    private String lagQuery;
+    private Duration maxLag = Duration.ofSeconds(5);
+}
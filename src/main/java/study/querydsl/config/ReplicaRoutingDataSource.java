@@ -0,0 +1,28 @@
+package study.querydsl.config;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+import javax.sql.DataSource;
+import java.util.Map;
+
+/**
+ * 읽기 전용 커넥션 요청을 replica로 보내되, ReplicaLagMonitor가 replica를 쓸 수 없다고 판단하면 primary로 보낸다.
+ */
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource {
+
+    enum Target {PRIMARY, REPLICA}
+
+    private final ReplicaLagMonitor monitor;
+
+    public ReplicaRoutingDataSource(DataSource primary, DataSource replica, ReplicaLagMonitor monitor) {
+        this.monitor = monitor;
+        setTargetDataSources(Map.of(Target.PRIMARY, primary, Target.REPLICA, replica));
+        setDefaultTargetDataSource(primary);
+        afterPropertiesSet();
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        return monitor.isAvailable() ? Target.REPLICA : Target.PRIMARY;
+    }
+}
@@ -0,0 +1,26 @@
+package study.querydsl.config;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+/**
+ * 비동기 검색 전용 스레드풀. 크기는 커넥션 풀보다 작게 잡아서 검색이 커넥션을 독점하지 않도록 한다.
+ * 큐까지 가득 차면 TaskRejectedException → 503 (MemberController)
+ */
+@Configuration
+@EnableConfigurationProperties(MemberSearchProperties.class)
+public class SearchExecutorConfig {
+
+    @Bean(destroyMethod = "shutdown")
+    ThreadPoolTaskExecutor searchExecutor(MemberSearchProperties properties) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(properties.getExecutor().getPoolSize());
+        executor.setMaxPoolSize(properties.getExecutor().getPoolSize());
+        executor.setQueueCapacity(properties.getExecutor().getQueueCapacity());
+        executor.setThreadNamePrefix("member-search-");
+        executor.initialize();
+        return executor;
+    }
+}
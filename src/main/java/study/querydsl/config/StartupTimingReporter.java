@@ -0,0 +1,71 @@
+package study.querydsl.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.context.metrics.buffering.BufferingApplicationStartup;
+import org.springframework.boot.context.metrics.buffering.StartupTimeline;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.core.metrics.StartupStep;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * 기동이 끝나면 단계별 소요 시간과 가장 오래 걸린 빈을 로그로 남긴다.
+ * QuerydslApplication.main에서 BufferingApplicationStartup을 설정해야 기록이 남는다.
+ */
+@Slf4j
+@Lazy(false)
+@Component
+@ConditionalOnProperty("startup.report.enabled")
+public class StartupTimingReporter implements ApplicationListener<ApplicationReadyEvent> {
+
+    static final String BEAN_INSTANTIATE = "spring.beans.instantiate";
+    static final int SLOWEST_BEANS = 10;
+
+    @Override
+    public void onApplicationEvent(ApplicationReadyEvent event) {
+        if (!(event.getApplicationContext().getApplicationStartup() instanceof BufferingApplicationStartup startup)) {
+            return;
+        }
+        List<StartupTimeline.TimelineEvent> events = startup.drainBufferedTimeline().getEvents();
+
+        StringBuilder report = new StringBuilder("startup timing (total ")
+                .append(event.getTimeTaken().toMillis()).append("ms)");
+        phases(events).forEach((name, duration) ->
+                report.append(String.format("%n  %-55s %6dms", name, duration.toMillis())));
+
+        report.append("\n  slowest beans (including dependencies)");
+        events.stream()
+                .filter(e -> BEAN_INSTANTIATE.equals(e.getStartupStep().getName()))
+                .sorted(Comparator.comparing(StartupTimeline.TimelineEvent::getDuration).reversed())
+                .limit(SLOWEST_BEANS)
+                .forEach(e -> report.append(String.format("%n    %-53s %6dms",
+                        tag(e.getStartupStep(), "beanName"), e.getDuration().toMillis())));
+        log.info(report.toString());
+    }
+
+    //빈 생성을 제외한 단계는 이름별로 합친다 (refresh 안의 단계는 refresh 시간에도 포함됨)
+    private Map<String, Duration> phases(List<StartupTimeline.TimelineEvent> events) {
+        return events.stream()
+                .filter(e -> !BEAN_INSTANTIATE.equals(e.getStartupStep().getName()))
+                .collect(Collectors.groupingBy(e -> e.getStartupStep().getName(), LinkedHashMap::new,
+                        Collectors.reducing(Duration.ZERO, StartupTimeline.TimelineEvent::getDuration, Duration::plus)));
+    }
+
+    private String tag(StartupStep step, String key) {
+        for (StartupStep.Tag tag : step.getTags()) {
+            if (key.equals(tag.getKey())) {
+                return tag.getValue();
+            }
+        }
+        return "?";
+    }
+}
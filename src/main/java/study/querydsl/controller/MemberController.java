@@ -1,16 +1,32 @@
 package study.querydsl.controller;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.core.task.TaskRejectedException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ProblemDetail;
+import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.async.DeferredResult;
+import org.springframework.web.server.ResponseStatusException;
 import study.querydsl.condition.MemberSearchCondition;
 import study.querydsl.dto.MemberTeamDto;
+import study.querydsl.dto.PageResponse;
+import study.querydsl.repository.DeepOffsetException;
 import study.querydsl.repository.MemberJpaRepository;
 import study.querydsl.repository.MemberRepository;
+import study.querydsl.repository.MemberSortTranslator;
+import study.querydsl.repository.SearchResultTooLargeException;
+import study.querydsl.repository.UnsupportedSortException;
 
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Function;
 
 @RestController
 @RequiredArgsConstructor
@@ -18,9 +34,11 @@ public class MemberController {
 
     private final MemberJpaRepository memberJpaRepository;
     private final MemberRepository memberRepository;
+    private final MemberSortTranslator memberSortTranslator;
 
     @GetMapping("/v1/members")
     public List<MemberTeamDto> searchMemberV1(MemberSearchCondition condition) {
+        requireFilter(condition);
         return memberJpaRepository.search(condition);
     }
     @GetMapping("v2/members")
@@ -32,4 +50,81 @@ public class MemberController {
     public Page<MemberTeamDto> searchMemberV3(MemberSearchCondition condition, Pageable pageable) {
         return memberRepository.searchPageComplex(condition, pageable);
     }
+
+    @GetMapping("v4/members")
+    public PageResponse<MemberTeamDto> searchMemberV4(MemberSearchCondition condition, Pageable pageable) {
+        return PageResponse.of(memberRepository.searchPageComplex(condition, pageable));
+    }
+
+    //검색은 searchExecutor에서 실행되고 서블릿 스레드는 바로 반환된다
+    @GetMapping("/v1/members/async")
+    public DeferredResult<List<MemberTeamDto>> searchMemberAsync(MemberSearchCondition condition) {
+        requireFilter(condition);
+        return deferred(memberRepository.searchAsync(condition));
+    }
+
+    @GetMapping("/v4/members/async")
+    public DeferredResult<PageResponse<MemberTeamDto>> searchMemberPageAsync(MemberSearchCondition condition, Pageable pageable) {
+        return deferred(memberRepository.searchPageComplexAsync(condition, pageable), PageResponse::of);
+    }
+
+    //페이징 없는 검색에 조건이 하나도 없으면 전체 테이블을 읽게 되므로 막는다
+    private void requireFilter(MemberSearchCondition condition) {
+        if (!condition.hasAnyFilter()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "검색 조건이 없으면 페이징 API(/v3/members, /v4/members)를 사용해야 합니다.");
+        }
+    }
+
+    /**
+     * 요청 타임아웃(spring.mvc.async.request-timeout)이 지나거나 클라이언트 연결이 끊기면 검색 future를 취소한다.
+     * 큐에서 기다리던 검색은 실행되지 않고, 실행 중인 쿼리는 member.search.query-timeout 으로 끝난다.
+     * 응답 변환은 response로 받는다. search.thenApply(...)를 넘기면 취소가 변환 단계에서 멈추고 검색까지 가지 않는다.
+     */
+    private <T> DeferredResult<T> deferred(CompletableFuture<T> search) {
+        return deferred(search, Function.identity());
+    }
+
+    private <T, R> DeferredResult<R> deferred(CompletableFuture<T> search, Function<T, R> response) {
+        DeferredResult<R> result = new DeferredResult<>();
+        search.whenComplete((value, e) -> {
+            if (e == null) {
+                result.setResult(response.apply(value));
+            } else {
+                result.setErrorResult(e instanceof CompletionException ? e.getCause() : e);
+            }
+        });
+        result.onTimeout(() -> {
+            search.cancel(true);
+            result.setErrorResult(new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "검색 시간 초과"));
+        });
+        result.onError(e -> search.cancel(true));
+        return result;
+    }
+
+    //정렬 key별 사용 횟수, 거절 수, 깊은 offset 요청 수
+    @GetMapping("/v4/members/sort-metrics")
+    public Map<String, Long> sortMetrics() {
+        return memberSortTranslator.metrics();
+    }
+
+    @ExceptionHandler(UnsupportedSortException.class)
+    public ProblemDetail unsupportedSort(UnsupportedSortException e) {
+        return ProblemDetail.forStatusAndDetail(HttpStatus.BAD_REQUEST, e.getMessage());
+    }
+
+    @ExceptionHandler(DeepOffsetException.class)
+    public ProblemDetail deepOffset(DeepOffsetException e) {
+        return ProblemDetail.forStatusAndDetail(HttpStatus.BAD_REQUEST, e.getMessage());
+    }
+
+    @ExceptionHandler(SearchResultTooLargeException.class)
+    public ProblemDetail searchResultTooLarge(SearchResultTooLargeException e) {
+        return ProblemDetail.forStatusAndDetail(HttpStatus.BAD_REQUEST, e.getMessage());
+    }
+
+    @ExceptionHandler(TaskRejectedException.class)
+    @ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+    public void searchRejected() {
+    }
 }
\ No newline at end of file
@@ -8,12 +8,22 @@ import lombok.*;
 @Setter
 @NoArgsConstructor(access = AccessLevel.PROTECTED)// JPA에서는 protected 레벨의 기본 생성자 필요
 @ToString(of = {"id", "username", "age"})//연관 관계 필드는 toString 처리하면 무한루프탈 수 있음
+//검색 정렬 key(MemberSortTranslator)마다 id를 뒤에 붙인 인덱스 → 정렬 + tiebreaker를 인덱스 순서로 읽는다
+@Table(indexes = {
+        @Index(name = "idx_member_username", columnList = "username, id"),
+        @Index(name = "idx_member_age", columnList = "age, id"),
+        @Index(name = "idx_member_team", columnList = "team_id, id")
+})
 public class Member {
     @Id @GeneratedValue
     private Long id;
     private String username;
     private int age;
 
+    //커밋 후 이벤트가 순서 없이 와도 최신 변경을 고를 수 있도록 (MemberColumnIndex)
+    @Version
+    private Long version;
+
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "team_id")
     private Team team;
@@ -0,0 +1,29 @@
+package study.querydsl.domain;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+import org.hibernate.annotations.Immutable;
+
+/**
+ * 팀별 회원 통계 읽기 모델 (member 테이블을 group by 하지 않고 팀 수만큼만 읽기 위함)
+ * 값은 TeamStatsEventListener가 SQL로 직접 갱신하므로 JPA로는 수정하지 않는다.
+ * stale = true 이면 min/max를 증분으로 유지할 수 없는 삭제가 있었다는 뜻 → 조회 시 해당 팀만 다시 계산
+ */
+@Entity
+@Immutable
+@Getter
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+@ToString
+public class TeamStats {
+    @Id
+    private Long teamId;
+    private long memberCount;
+    private long ageSum;
+    private Integer minAge;
+    private Integer maxAge;
+    private boolean stale;
+}
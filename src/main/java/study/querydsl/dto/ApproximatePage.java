@@ -0,0 +1,21 @@
+package study.querydsl.dto;
+
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+
+import java.util.List;
+
+/**
+ * totalElements가 count 쿼리가 아니라 통계로 추정한 값인 페이지 (MemberCountEstimator)
+ * 추정이 실제보다 크면 마지막 페이지 다음에 빈 페이지가 있을 수 있다.
+ */
+public class ApproximatePage<T> extends PageImpl<T> {
+
+    public ApproximatePage(List<T> content, Pageable pageable, long estimatedTotal) {
+        super(content, pageable, estimatedTotal);
+    }
+
+    public boolean isTotalApproximate() {
+        return true;
+    }
+}
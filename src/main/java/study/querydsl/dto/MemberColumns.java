@@ -0,0 +1,120 @@
+package study.querydsl.dto;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 회원 id, 나이, 팀 이름을 행(Tuple) 단위가 아닌 컬럼 단위 배열로 들고 있는 결과
+ * 팀 이름은 teamNames 사전의 인덱스(teamCodes)로 저장한다. 팀이 없는 회원은 NO_TEAM
+ */
+public class MemberColumns {
+    public static final int NO_TEAM = -1;
+
+    private final long[] memberIds;
+    private final int[] ages;
+    private final int[] teamCodes;
+    private final String[] teamNames;
+    private final int size;
+
+    private MemberColumns(long[] memberIds, int[] ages, int[] teamCodes, String[] teamNames, int size) {
+        this.memberIds = memberIds;
+        this.ages = ages;
+        this.teamCodes = teamCodes;
+        this.teamNames = teamNames;
+        this.size = size;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public long memberId(int row) {
+        return memberIds[row];
+    }
+
+    public int age(int row) {
+        return ages[row];
+    }
+
+    public String teamName(int row) {
+        int code = teamCodes[row];
+        return code == NO_TEAM ? null : teamNames[code];
+    }
+
+    /**
+     * 팀별 count/sum/min/max/avg(age)를 배열 한 번 순회로 계산한다. (팀이 없는 회원은 제외)
+     */
+    public List<TeamAgeStats> teamAgeStats() {
+        int teamCount = teamNames.length;
+        long[] count = new long[teamCount];
+        long[] sum = new long[teamCount];
+        int[] min = new int[teamCount];
+        int[] max = new int[teamCount];
+        Arrays.fill(min, Integer.MAX_VALUE);
+        Arrays.fill(max, Integer.MIN_VALUE);
+
+        for (int row = 0; row < size; row++) {
+            int code = teamCodes[row];
+            if (code == NO_TEAM) {
+                continue;
+            }
+            int age = ages[row];
+            count[code]++;
+            sum[code] += age;
+            if (age < min[code]) min[code] = age;
+            if (age > max[code]) max[code] = age;
+        }
+
+        List<TeamAgeStats> result = new ArrayList<>(teamCount);
+        for (int code = 0; code < teamCount; code++) {
+            result.add(new TeamAgeStats(teamNames[code], count[code], sum[code], min[code], max[code]));
+        }
+        return result;
+    }
+
+    public static Builder builder(int expectedSize) {
+        return new Builder(expectedSize);
+    }
+
+    public static class Builder {
+        private long[] memberIds;
+        private int[] ages;
+        private int[] teamCodes;
+        private final Map<String, Integer> dictionary = new HashMap<>();
+        private final List<String> teamNames = new ArrayList<>();
+        private int size;
+
+        private Builder(int expectedSize) {
+            int capacity = Math.max(expectedSize, 16);
+            this.memberIds = new long[capacity];
+            this.ages = new int[capacity];
+            this.teamCodes = new int[capacity];
+        }
+
+        public Builder add(long memberId, int age, String teamName) {
+            if (size == memberIds.length) {
+                int capacity = size + (size >> 1);
+                memberIds = Arrays.copyOf(memberIds, capacity);
+                ages = Arrays.copyOf(ages, capacity);
+                teamCodes = Arrays.copyOf(teamCodes, capacity);
+            }
+            memberIds[size] = memberId;
+            ages[size] = age;
+            teamCodes[size] = teamName == null ? NO_TEAM : dictionary.computeIfAbsent(teamName, this::newCode);
+            size++;
+            return this;
+        }
+
+        private int newCode(String teamName) {
+            teamNames.add(teamName);
+            return teamNames.size() - 1;
+        }
+
+        public MemberColumns build() {
+            return new MemberColumns(memberIds, ages, teamCodes, teamNames.toArray(new String[0]), size);
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package study.querydsl.dto;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+public class MemberIngestRow {
+    private String username;
+    private int age;
+    private String teamName;
+
+    public MemberIngestRow(String username, int age, String teamName) {
+        this.username = username;
+        this.age = age;
+        this.teamName = teamName;
+    }
+}
@@ -0,0 +1,35 @@
+package study.querydsl.dto;
+
+import lombok.Getter;
+import org.springframework.data.domain.Page;
+
+import java.util.List;
+
+/**
+ * PageImpl을 그대로 직렬화하면 pageable, sort 등 불필요한 메타데이터가 함께 내려간다.
+ * API 응답용으로 필요한 값만 담는 고정된 형태의 페이지 응답
+ */
+@Getter
+public class PageResponse<T> {
+    private final List<T> content;
+    private final int page;
+    private final int size;
+    private final long totalElements;
+    private final boolean hasNext;
+    //true 이면 totalElements는 추정치 (ApproximatePage)
+    private final boolean totalApproximate;
+
+    public PageResponse(List<T> content, int page, int size, long totalElements, boolean hasNext, boolean totalApproximate) {
+        this.content = content;
+        this.page = page;
+        this.size = size;
+        this.totalElements = totalElements;
+        this.hasNext = hasNext;
+        this.totalApproximate = totalApproximate;
+    }
+
+    public static <T> PageResponse<T> of(Page<T> page) {
+        return new PageResponse<>(page.getContent(), page.getNumber(), page.getSize(),
+                page.getTotalElements(), page.hasNext(), page instanceof ApproximatePage);
+    }
+}
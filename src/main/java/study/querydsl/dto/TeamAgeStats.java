@@ -0,0 +1,24 @@
+package study.querydsl.dto;
+
+import lombok.Data;
+
+@Data
+public class TeamAgeStats {
+    private String teamName;
+    private long count;
+    private long sum;
+    private int min;
+    private int max;
+
+    public TeamAgeStats(String teamName, long count, long sum, int min, int max) {
+        this.teamName = teamName;
+        this.count = count;
+        this.sum = sum;
+        this.min = min;
+        this.max = max;
+    }
+
+    public double getAvg() {
+        return count == 0 ? 0 : (double) sum / count;
+    }
+}
@@ -0,0 +1,18 @@
+package study.querydsl.dto;
+
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+public class TeamWithMembersDto {
+    private Long teamId;
+    private String teamName;
+    private List<MemberDto> members;
+
+    public TeamWithMembersDto(Long teamId, String teamName, List<MemberDto> members) {
+        this.teamId = teamId;
+        this.teamName = teamName;
+        this.members = members;
+    }
+}
@@ -0,0 +1,427 @@
+package study.querydsl.index;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import study.querydsl.condition.MemberSearchCondition;
+import study.querydsl.dto.MemberTeamDto;
+import study.querydsl.repository.SortTranslator;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+import static org.springframework.util.StringUtils.hasText;
+
+/**
+ * 회원/팀 컬럼을 메모리 배열로 들고 MemberSearchCondition을 DB 없이 평가한다.
+ * - 행(row)마다 id(long[]), 나이(int[]), username 사전 코드(int[]), 팀 코드(int[]), 버전(long[])
+ * - username마다, 팀 코드마다, 나이 값마다 행 BitSet (나이는 TreeMap이라 범위를 subMap으로 바로 구한다)
+ * - 삭제된 행은 live 에서만 빠지고 자리는 rebuild 때 정리된다
+ * 변경은 MemberIndexEventListener가 커밋 후에 반영한다. 읽기/쓰기는 ReadWriteLock으로 나눈다.
+ * 커밋 후 콜백은 커밋 순서대로 온다는 보장이 없으므로 회원은 Member.version이 더 큰 변경만 반영하고,
+ * 삭제된 회원 id는 다음 rebuild까지 기억해서 늦게 온 insert/update를 무시한다.
+ */
+public class MemberColumnIndex {
+
+    static final int NO_TEAM = -1;
+
+    private final SortTranslator sortTranslator;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private volatile boolean ready;
+
+    private long[] memberIds = new long[1024];
+    private int[] ages = new int[1024];
+    private int[] usernameCodes = new int[1024];
+    private int[] teamCodes = new int[1024];
+    private long[] versions = new long[1024];
+    private int rows;
+    private final BitSet live = new BitSet();
+    private final Map<Long, Integer> rowByMemberId = new HashMap<>();
+    private final Set<Long> removedMemberIds = new HashSet<>();
+
+    private final Map<String, Integer> usernameDictionary = new HashMap<>();
+    private final List<String> usernames = new ArrayList<>();
+    private final Map<String, BitSet> usernameRows = new HashMap<>();
+
+    private final Map<Long, Integer> teamCodeById = new HashMap<>();
+    private final List<Long> teamIds = new ArrayList<>();
+    private final List<String> teamNames = new ArrayList<>();
+    private final List<BitSet> teamRows = new ArrayList<>();
+    private final Map<String, Set<Integer>> teamCodesByName = new HashMap<>();
+
+    private final TreeMap<Integer, BitSet> ageRows = new TreeMap<>();
+
+    public MemberColumnIndex(SortTranslator sortTranslator) {
+        this.sortTranslator = sortTranslator;
+    }
+
+    /**
+     * rebuild 중이거나 아직 적재 전이면 false. 호출하는 쪽은 DB로 조회한다.
+     */
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * 전체를 다시 적재한다. 적재하는 동안 isReady()는 false
+     * 쓰기 lock을 잡은 다음에 조회를 시작해야 조회 후 ~ lock 사이에 커밋된 변경이 지워지지 않으므로 Supplier로 받는다.
+     */
+    public void rebuild(Supplier<Stream<TeamRow>> teams, Supplier<Stream<MemberRow>> members) {
+        ready = false;
+        lock.writeLock().lock();
+        try {
+            clear();
+            try (Stream<TeamRow> rows = teams.get()) {
+                rows.forEach(team -> putTeam(team.id(), team.name()));
+            }
+            try (Stream<MemberRow> rows = members.get()) {
+                rows.forEach(member -> putMember(member.id(), member.username(), member.age(), member.teamId(), member.version()));
+            }
+            ready = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void upsertTeam(long teamId, String name) {
+        lock.writeLock().lock();
+        try {
+            putTeam(teamId, name);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    //팀이 지워지면 소속 회원은 팀 없음으로 남는다 (FK가 있으므로 보통은 회원이 먼저 지워짐)
+    public void removeTeam(long teamId) {
+        lock.writeLock().lock();
+        try {
+            Integer code = teamCodeById.get(teamId);
+            if (code == null) {
+                return;
+            }
+            BitSet members = teamRows.get(code);
+            for (int row = members.nextSetBit(0); row >= 0; row = members.nextSetBit(row + 1)) {
+                teamCodes[row] = NO_TEAM;
+            }
+            members.clear();
+            renameTeam(code, null);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    //version이 이미 반영된 것보다 크지 않거나 삭제된 회원이면 무시
+    public void upsertMember(long memberId, String username, int age, Long teamId, long version) {
+        lock.writeLock().lock();
+        try {
+            putMember(memberId, username, age, teamId, version);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void removeMember(long memberId) {
+        lock.writeLock().lock();
+        try {
+            removedMemberIds.add(memberId);
+            Integer row = rowByMemberId.remove(memberId);
+            if (row != null) {
+                unlink(row);
+                live.clear(row);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return live.cardinality();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * MemberRepositoryImpl.search 와 같은 결과. 순서는 정해져 있지 않다(적재 순)
+     */
+    public List<MemberTeamDto> search(MemberSearchCondition condition, int limit) {
+        lock.readLock().lock();
+        try {
+            BitSet matches = filter(condition);
+            List<MemberTeamDto> result = new ArrayList<>(Math.min(limit, matches.cardinality()));
+            for (int row = matches.nextSetBit(0); row >= 0 && result.size() < limit; row = matches.nextSetBit(row + 1)) {
+                result.add(toDto(row));
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public long count(MemberSearchCondition condition) {
+        lock.readLock().lock();
+        try {
+            return filter(condition).cardinality();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * 정렬 key와 tiebreaker(memberId, 정렬 방향을 따라감)는 MemberSortTranslator와 같다.
+     * 필요한 offset + size 개만 힙으로 골라서 정렬한다.
+     */
+    public Page<MemberTeamDto> page(MemberSearchCondition condition, Pageable pageable) {
+        Comparator<Integer> order = comparator(pageable.getSort());
+        lock.readLock().lock();
+        try {
+            BitSet matches = filter(condition);
+            int total = matches.cardinality();
+            if (pageable.isUnpaged()) {
+                return new PageImpl<>(toDtos(top(matches, order, total)), pageable, total);
+            }
+            long wanted = Math.min(pageable.getOffset() + pageable.getPageSize(), total);
+            List<Integer> top = top(matches, order, (int) wanted);
+            List<Integer> content = pageable.getOffset() >= top.size()
+                    ? List.of()
+                    : top.subList((int) pageable.getOffset(), top.size());
+            return new PageImpl<>(toDtos(content), pageable, total);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private BitSet filter(MemberSearchCondition condition) {
+        BitSet matches = (BitSet) live.clone();
+
+        if (hasText(condition.getTeamName())) {
+            BitSet inTeams = new BitSet();
+            for (int code : teamCodesByName.getOrDefault(condition.getTeamName(), Set.of())) {
+                inTeams.or(teamRows.get(code));
+            }
+            matches.and(inTeams);
+        }
+
+        if (condition.getAgeGoe() != null || condition.getAgeLoe() != null) {
+            int from = condition.getAgeGoe() != null ? condition.getAgeGoe() : Integer.MIN_VALUE;
+            int to = condition.getAgeLoe() != null ? condition.getAgeLoe() : Integer.MAX_VALUE;
+            BitSet inRange = new BitSet();
+            if (from <= to) {
+                ageRows.subMap(from, true, to, true).values().forEach(inRange::or);
+            }
+            matches.and(inRange);
+        }
+
+        if (hasText(condition.getUsername())) {
+            matches.and(usernameRows.getOrDefault(condition.getUsername(), new BitSet()));
+        }
+        return matches;
+    }
+
+    private List<Integer> top(BitSet matches, Comparator<Integer> order, int k) {
+        if (k <= 0) {
+            return List.of();
+        }
+        PriorityQueue<Integer> heap = new PriorityQueue<>(k, order.reversed());
+        for (int row = matches.nextSetBit(0); row >= 0; row = matches.nextSetBit(row + 1)) {
+            if (heap.size() < k) {
+                heap.add(row);
+            } else if (order.compare(row, heap.peek()) < 0) {
+                heap.poll();
+                heap.add(row);
+            }
+        }
+        List<Integer> result = new ArrayList<>(heap);
+        result.sort(order);
+        return result;
+    }
+
+    /**
+     * 정렬 모양은 MemberSortTranslator가 DB 경로와 같이 검사한다 (key 하나 + memberId, 같은 방향).
+     * null 위치는 H2 기본(asc면 앞, desc면 뒤)과 같다.
+     */
+    private Comparator<Integer> comparator(Sort sort) {
+        Sort.Order leading = sortTranslator.leadingOrder(sort);
+        Comparator<Integer> byId = Comparator.comparingLong(row -> memberIds[row]);
+        if (leading == null) {
+            return byId;
+        }
+        Comparator<Integer> tiebreaker = leading.isAscending() ? byId : byId.reversed();
+        Comparator<Integer> byAge = Comparator.comparingInt(row -> ages[row]);
+        return switch (leading.getProperty()) {
+            case "memberId" -> tiebreaker;
+            case "username" -> Comparator.comparing((Integer row) -> usernames.get(usernameCodes[row]), nullable(leading))
+                    .thenComparing(tiebreaker);
+            case "age" -> (leading.isAscending() ? byAge : byAge.reversed()).thenComparing(tiebreaker);
+            case "teamId" -> Comparator.comparing((Integer row) -> teamCodes[row] == NO_TEAM ? null : teamIds.get(teamCodes[row]), nullable(leading))
+                    .thenComparing(tiebreaker);
+            default -> throw new IllegalStateException("인덱스에서 정렬할 수 없는 key입니다: " + leading.getProperty());
+        };
+    }
+
+    private static <T extends Comparable<? super T>> Comparator<T> nullable(Sort.Order order) {
+        Comparator<T> direction = order.isAscending() ? Comparator.naturalOrder() : Comparator.reverseOrder();
+        boolean nullsFirst = switch (order.getNullHandling()) {
+            case NULLS_FIRST -> true;
+            case NULLS_LAST -> false;
+            default -> order.isAscending();
+        };
+        return nullsFirst ? Comparator.nullsFirst(direction) : Comparator.nullsLast(direction);
+    }
+
+    private List<MemberTeamDto> toDtos(List<Integer> rows) {
+        List<MemberTeamDto> result = new ArrayList<>(rows.size());
+        rows.forEach(row -> result.add(toDto(row)));
+        return result;
+    }
+
+    private MemberTeamDto toDto(int row) {
+        int team = teamCodes[row];
+        return new MemberTeamDto(
+                memberIds[row],
+                usernames.get(usernameCodes[row]),
+                ages[row],
+                team == NO_TEAM ? null : teamIds.get(team),
+                team == NO_TEAM ? null : teamNames.get(team));
+    }
+
+    private void putTeam(long teamId, String name) {
+        Integer code = teamCodeById.get(teamId);
+        if (code == null) {
+            code = teamIds.size();
+            teamCodeById.put(teamId, code);
+            teamIds.add(teamId);
+            teamNames.add(null);
+            teamRows.add(new BitSet());
+        }
+        renameTeam(code, name);
+    }
+
+    private void renameTeam(int code, String name) {
+        String previous = teamNames.get(code);
+        if (previous != null) {
+            teamCodesByName.get(previous).remove(code);
+        }
+        teamNames.set(code, name);
+        if (name != null) {
+            teamCodesByName.computeIfAbsent(name, key -> new HashSet<>()).add(code);
+        }
+    }
+
+    private void putMember(long memberId, String username, int age, Long teamId, long version) {
+        if (removedMemberIds.contains(memberId)) {
+            return;
+        }
+        Integer existing = rowByMemberId.get(memberId);
+        if (existing != null && versions[existing] >= version) {
+            return;
+        }
+        int row;
+        if (existing == null) {
+            row = rows++;
+            ensureCapacity(rows);
+            rowByMemberId.put(memberId, row);
+            live.set(row);
+        } else {
+            row = existing;
+            unlink(row);
+        }
+        memberIds[row] = memberId;
+        ages[row] = age;
+        usernameCodes[row] = usernameCode(username);
+        teamCodes[row] = teamCode(teamId);
+        versions[row] = version;
+        ageRows.computeIfAbsent(age, key -> new BitSet()).set(row);
+        usernameRows.computeIfAbsent(username, key -> new BitSet()).set(row);
+        if (teamCodes[row] != NO_TEAM) {
+            teamRows.get(teamCodes[row]).set(row);
+        }
+    }
+
+    //행을 나이/username/팀 bitmap에서 뺀다 (값을 바꾸거나 지우기 전에)
+    private void unlink(int row) {
+        BitSet sameAge = ageRows.get(ages[row]);
+        sameAge.clear(row);
+        if (sameAge.isEmpty()) {
+            ageRows.remove(ages[row]);
+        }
+        String username = usernames.get(usernameCodes[row]);
+        BitSet sameUsername = usernameRows.get(username);
+        sameUsername.clear(row);
+        if (sameUsername.isEmpty()) {
+            usernameRows.remove(username);
+        }
+        if (teamCodes[row] != NO_TEAM) {
+            teamRows.get(teamCodes[row]).clear(row);
+        }
+    }
+
+    private int usernameCode(String username) {
+        return usernameDictionary.computeIfAbsent(username, key -> {
+            usernames.add(key);
+            return usernames.size() - 1;
+        });
+    }
+
+    //인덱스에 없는 팀(이벤트 순서가 어긋난 경우)은 이름 없이 등록해두고 팀 이벤트가 오면 채워진다
+    private int teamCode(Long teamId) {
+        if (teamId == null) {
+            return NO_TEAM;
+        }
+        if (!teamCodeById.containsKey(teamId)) {
+            putTeam(teamId, null);
+        }
+        return teamCodeById.get(teamId);
+    }
+
+    private void ensureCapacity(int size) {
+        if (size <= memberIds.length) {
+            return;
+        }
+        int capacity = Math.max(size, memberIds.length * 2);
+        memberIds = Arrays.copyOf(memberIds, capacity);
+        ages = Arrays.copyOf(ages, capacity);
+        usernameCodes = Arrays.copyOf(usernameCodes, capacity);
+        teamCodes = Arrays.copyOf(teamCodes, capacity);
+        versions = Arrays.copyOf(versions, capacity);
+    }
+
+    private void clear() {
+        rows = 0;
+        live.clear();
+        rowByMemberId.clear();
+        removedMemberIds.clear();
+        usernameDictionary.clear();
+        usernames.clear();
+        usernameRows.clear();
+        teamCodeById.clear();
+        teamIds.clear();
+        teamNames.clear();
+        teamRows.clear();
+        teamCodesByName.clear();
+        ageRows.clear();
+    }
+
+    public record TeamRow(long id, String name) {
+    }
+
+    public record MemberRow(long id, String username, int age, Long teamId, long version) {
+    }
+}
@@ -0,0 +1,36 @@
+package study.querydsl.index;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Lazy;
+import study.querydsl.repository.MemberSortTranslator;
+
+import javax.sql.DataSource;
+
+/**
+ * member.index.enabled=true 이면 MemberRepositoryImpl의 검색을 메모리 인덱스(MemberColumnIndex)로 처리한다.
+ * 인덱스는 애플리케이션 기본 DataSource에서 적재하므로 샤딩(sharding.datasources)과 같이 쓰지 않는다.
+ */
+@Configuration
+@ConditionalOnProperty(name = "member.index.enabled", havingValue = "true")
+public class MemberIndexConfig {
+
+    @Bean
+    MemberColumnIndex memberColumnIndex(MemberSortTranslator sortTranslator) {
+        return new MemberColumnIndex(sortTranslator);
+    }
+
+    @Bean
+    @Lazy(false) //spring.main.lazy-initialization=true 여도 기동 시 등록
+    MemberIndexEventListener memberIndexEventListener(EntityManagerFactory emf, MemberColumnIndex memberColumnIndex) {
+        return new MemberIndexEventListener(emf, memberColumnIndex);
+    }
+
+    @Bean
+    @Lazy(false)
+    MemberIndexLoader memberIndexLoader(MemberColumnIndex memberColumnIndex, DataSource dataSource) {
+        return new MemberIndexLoader(memberColumnIndex, dataSource);
+    }
+}
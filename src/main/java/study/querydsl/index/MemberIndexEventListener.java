@@ -0,0 +1,99 @@
+package study.querydsl.index;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.PostCommitDeleteEventListener;
+import org.hibernate.event.spi.PostCommitInsertEventListener;
+import org.hibernate.event.spi.PostCommitUpdateEventListener;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.persister.entity.EntityPersister;
+import org.springframework.context.event.EventListener;
+import study.querydsl.domain.Member;
+import study.querydsl.domain.Team;
+import study.querydsl.service.MembersIngestedEvent;
+
+/**
+ * 커밋된 Member/Team 변경을 MemberColumnIndex에 반영한다. 롤백된 변경은 오지 않는다.
+ * StatelessSession(MemberIngestService)으로 넣은 회원은 배치 커밋 후 MembersIngestedEvent로 받는다.
+ * 벌크 JPQL, 다른 애플리케이션이 바꾼 데이터는 이벤트가 없으므로 MemberIndexLoader가 주기적으로 다시 적재한다.
+ */
+public class MemberIndexEventListener
+        implements PostCommitInsertEventListener, PostCommitUpdateEventListener, PostCommitDeleteEventListener {
+
+    private final MemberColumnIndex index;
+
+    public MemberIndexEventListener(EntityManagerFactory emf, MemberColumnIndex index) {
+        this.index = index;
+        EventListenerRegistry registry = emf.unwrap(SessionFactoryImplementor.class)
+                .getServiceRegistry()
+                .getService(EventListenerRegistry.class);
+        registry.appendListeners(EventType.POST_COMMIT_INSERT, this);
+        registry.appendListeners(EventType.POST_COMMIT_UPDATE, this);
+        registry.appendListeners(EventType.POST_COMMIT_DELETE, this);
+    }
+
+    @Override
+    public void onPostInsert(PostInsertEvent event) {
+        upsert(event.getEntity(), event.getPersister(), event.getId(), event.getState());
+    }
+
+    @Override
+    public void onPostUpdate(PostUpdateEvent event) {
+        upsert(event.getEntity(), event.getPersister(), event.getId(), event.getState());
+    }
+
+    @Override
+    public void onPostDelete(PostDeleteEvent event) {
+        if (event.getEntity() instanceof Member) {
+            index.removeMember((Long) event.getId());
+        } else if (event.getEntity() instanceof Team) {
+            index.removeTeam((Long) event.getId());
+        }
+    }
+
+    @EventListener
+    public void onIngested(MembersIngestedEvent event) {
+        event.teams().forEach(team -> index.upsertTeam(team.id(), team.name()));
+        event.members().forEach(member ->
+                index.upsertMember(member.id(), member.username(), member.age(), member.teamId(), member.version()));
+    }
+
+    @Override
+    public void onPostInsertCommitFailed(PostInsertEvent event) {
+    }
+
+    @Override
+    public void onPostUpdateCommitFailed(PostUpdateEvent event) {
+    }
+
+    @Override
+    public void onPostDeleteCommitFailed(PostDeleteEvent event) {
+    }
+
+    @Override
+    public boolean requiresPostCommitHandling(EntityPersister persister) {
+        Class<?> entity = persister.getMappedClass();
+        return entity == Member.class || entity == Team.class;
+    }
+
+    private void upsert(Object entity, EntityPersister persister, Object id, Object[] state) {
+        if (entity instanceof Member) {
+            Team team = (Team) property(persister, state, "team");
+            index.upsertMember((Long) id,
+                    (String) property(persister, state, "username"),
+                    (Integer) property(persister, state, "age"),
+                    team == null ? null : team.getId(),
+                    (Long) property(persister, state, "version"));
+        } else if (entity instanceof Team) {
+            index.upsertTeam((Long) id, (String) property(persister, state, "name"));
+        }
+    }
+
+    private static Object property(EntityPersister persister, Object[] state, String name) {
+        return state[persister.getEntityMetamodel().getPropertyIndex(name)];
+    }
+}
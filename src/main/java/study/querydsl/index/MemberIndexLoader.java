@@ -0,0 +1,52 @@
+package study.querydsl.index;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import javax.sql.DataSource;
+
+/**
+ * 기동이 끝나면(초기 데이터 적재 후) 한 번, 이후 member.index.rebuild-cron 마다 DB에서 다시 적재한다.
+ * 조회는 MemberColumnIndex의 쓰기 lock을 잡은 뒤 시작하므로 그 사이에 커밋된 변경은 적재가 끝난 뒤 이벤트로 반영된다.
+ */
+@Slf4j
+public class MemberIndexLoader {
+
+    private static final int FETCH_SIZE = 10_000;
+
+    private final MemberColumnIndex index;
+    private final JdbcTemplate jdbcTemplate;
+
+    public MemberIndexLoader(MemberColumnIndex index, DataSource dataSource) {
+        this.index = index;
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.jdbcTemplate.setFetchSize(FETCH_SIZE);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(cron = "${member.index.rebuild-cron:0 30 4 * * *}")
+    public void load() {
+        long start = System.nanoTime();
+        try {
+            rebuild();
+        } catch (DataAccessException e) {
+            //isReady()가 false로 남으므로 다음 적재까지는 DB로 조회된다
+            log.error("member index load failed", e);
+            return;
+        }
+        log.info("member index loaded. members={} {}ms", index.size(), (System.nanoTime() - start) / 1_000_000);
+    }
+
+    private void rebuild() {
+        index.rebuild(
+                () -> jdbcTemplate.queryForStream("select id, name from team",
+                        (rs, rowNum) -> new MemberColumnIndex.TeamRow(rs.getLong(1), rs.getString(2))),
+                () -> jdbcTemplate.queryForStream("select id, username, age, team_id, version from member",
+                        (rs, rowNum) -> new MemberColumnIndex.MemberRow(
+                                rs.getLong(1), rs.getString(2), rs.getInt(3), rs.getObject(4, Long.class), rs.getLong(5))));
+    }
+}
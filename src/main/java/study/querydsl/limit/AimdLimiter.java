@@ -0,0 +1,77 @@
+package study.querydsl.limit;
+
+import java.time.Duration;
+import java.util.function.IntSupplier;
+
+/**
+ * 동시 실행 수 제한을 AIMD(additive increase / multiplicative decrease)로 조절한다.
+ * 느린 응답이나 커넥션 풀 대기가 보이면 limit을 backoffRatio만큼 줄이고,
+ * limit 근처까지 차서 돌았는데도 빨랐으면 1씩 늘린다.
+ */
+public class AimdLimiter {
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final long latencyThresholdNanos;
+    private final double backoffRatio;
+    private final IntSupplier poolWaiters;
+
+    private int limit;
+    private int inFlight;
+
+    public AimdLimiter(int initialLimit, int minLimit, int maxLimit,
+                       Duration latencyThreshold, double backoffRatio, IntSupplier poolWaiters) {
+        if (minLimit < 1 || minLimit > maxLimit) {
+            throw new IllegalArgumentException("1 <= minLimit <= maxLimit 이어야 합니다.");
+        }
+        if (backoffRatio <= 0 || backoffRatio >= 1) {
+            throw new IllegalArgumentException("backoffRatio는 0과 1 사이여야 합니다.");
+        }
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.latencyThresholdNanos = latencyThreshold.toNanos();
+        this.backoffRatio = backoffRatio;
+        this.poolWaiters = poolWaiters;
+        this.limit = Math.max(minLimit, Math.min(maxLimit, initialLimit));
+    }
+
+    /**
+     * 자리가 있으면 점유하고 true. false면 호출하지 말고 바로 거절해야 한다.
+     */
+    public synchronized boolean tryAcquire() {
+        if (inFlight >= limit) {
+            return false;
+        }
+        inFlight++;
+        return true;
+    }
+
+    /**
+     * tryAcquire로 얻은 자리를 돌려주면서 이번 실행 결과로 limit을 조정한다.
+     *
+     * @param dropped 타임아웃 등으로 정상 처리되지 못했으면 true (지연과 상관없이 줄인다)
+     */
+    public void release(long latencyNanos, boolean dropped) {
+        boolean overloaded = dropped
+                || latencyNanos > latencyThresholdNanos
+                || poolWaiters.getAsInt() > 0;
+        synchronized (this) {
+            boolean saturated = inFlight * 2 >= limit;
+            inFlight--;
+            if (overloaded) {
+                limit = Math.max(minLimit, (int) (limit * backoffRatio));
+            } else if (saturated) {
+                //limit에 한참 못 미치는 상태에서 늘리면 실제로 검증되지 않은 limit까지 올라간다
+                limit = Math.min(maxLimit, limit + 1);
+            }
+        }
+    }
+
+    public synchronized int getLimit() {
+        return limit;
+    }
+
+    public synchronized int getInFlight() {
+        return inFlight;
+    }
+}
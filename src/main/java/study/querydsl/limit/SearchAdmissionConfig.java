@@ -0,0 +1,61 @@
+package study.querydsl.limit;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import study.querydsl.config.MemberSearchProperties;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.util.function.IntSupplier;
+
+/**
+ * member.search.admission.enabled=false 로 끌 수 있다.
+ */
+@Configuration
+@ConditionalOnProperty(name = "member.search.admission.enabled", matchIfMissing = true)
+public class SearchAdmissionConfig {
+
+    @Bean
+    AimdLimiter searchLimiter(MemberSearchProperties properties, ObjectProvider<DataSource> dataSource) {
+        MemberSearchProperties.Admission admission = properties.getAdmission();
+        return new AimdLimiter(admission.getInitialLimit(), admission.getMinLimit(), admission.getMaxLimit(),
+                admission.getLatencyThreshold(), admission.getBackoffRatio(), poolWaiters(dataSource));
+    }
+
+    @Bean
+    FilterRegistrationBean<SearchAdmissionFilter> searchAdmissionFilter(AimdLimiter searchLimiter) {
+        FilterRegistrationBean<SearchAdmissionFilter> registration =
+                new FilterRegistrationBean<>(new SearchAdmissionFilter(searchLimiter));
+        registration.addUrlPatterns("/v3/members", "/v4/members", "/v4/members/async");
+        registration.setAsyncSupported(true);
+        return registration;
+    }
+
+    //커넥션을 기다리는 스레드 수. 프록시(p6spy, 라우팅) 뒤의 Hikari 풀을 찾고, 없으면 항상 0
+    static IntSupplier poolWaiters(ObjectProvider<DataSource> dataSource) {
+        return () -> {
+            HikariPoolMXBean pool = hikariPool(dataSource.getIfAvailable());
+            return pool == null ? 0 : pool.getThreadsAwaitingConnection();
+        };
+    }
+
+    private static HikariPoolMXBean hikariPool(DataSource dataSource) {
+        if (dataSource == null) {
+            return null;
+        }
+        try {
+            if (dataSource.isWrapperFor(HikariDataSource.class)) {
+                //풀이 아직 시작되지 않았으면 null
+                return dataSource.unwrap(HikariDataSource.class).getHikariPoolMXBean();
+            }
+        } catch (SQLException e) {
+            return null;
+        }
+        return null;
+    }
+}
@@ -0,0 +1,84 @@
+package study.querydsl.limit;
+
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * 페이징 검색(searchPageComplex) 앞에서 AimdLimiter로 동시 실행 수를 막는다.
+ * 자리가 없으면 커넥션 풀 큐에 줄 세우지 않고 바로 429로 돌려보낸다.
+ * 비동기 요청은 서블릿 스레드가 먼저 반환되므로 AsyncListener에서 완료 시점에 자리를 돌려준다.
+ */
+public class SearchAdmissionFilter extends OncePerRequestFilter {
+
+    static final String RETRY_AFTER_SECONDS = "1";
+
+    private final AimdLimiter limiter;
+
+    public SearchAdmissionFilter(AimdLimiter limiter) {
+        this.limiter = limiter;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        if (!limiter.tryAcquire()) {
+            response.setHeader("Retry-After", RETRY_AFTER_SECONDS);
+            response.sendError(HttpStatus.TOO_MANY_REQUESTS.value());
+            return;
+        }
+
+        long start = System.nanoTime();
+        boolean async = false;
+        boolean failed = true;
+        try {
+            filterChain.doFilter(request, response);
+            failed = false;
+            if (request.isAsyncStarted()) {
+                request.getAsyncContext().addListener(new ReleaseOnComplete(start));
+                async = true;
+            }
+        } finally {
+            if (!async) {
+                limiter.release(System.nanoTime() - start, failed || response.getStatus() >= 500);
+            }
+        }
+    }
+
+    private class ReleaseOnComplete implements AsyncListener {
+
+        private final long start;
+        private boolean dropped;
+
+        ReleaseOnComplete(long start) {
+            this.start = start;
+        }
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            HttpServletResponse response = (HttpServletResponse) event.getSuppliedResponse();
+            limiter.release(System.nanoTime() - start, dropped || response.getStatus() >= 500);
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+            dropped = true;
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+            dropped = true;
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package study.querydsl.repository;
+
+/**
+ * offset + size가 SortTranslator.DEEP_OFFSET을 넘는 페이지. 샤드 검색은 샤드마다 그만큼 읽어야 하므로 거절한다.
+ * MemberController에서 400으로 응답한다.
+ */
+public class DeepOffsetException extends IllegalArgumentException {
+
+    public DeepOffsetException(long offset, int size) {
+        super("offset + size가 " + SortTranslator.DEEP_OFFSET + "건을 넘는 페이지는 조회할 수 없습니다: offset=" + offset + ", size=" + size
+                + " (조건을 좁혀야 합니다)");
+    }
+}
@@ -0,0 +1,66 @@
+package study.querydsl.repository;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * in 절 파라미터 개수 관리.
+ * in 목록 길이마다 SQL이 달라지면 Hibernate 쿼리 plan 캐시와 DB statement 캐시가 길이별로 따로 쌓이므로
+ * 길이를 2의 거듭제곱(1, 2, 4, ... MAX_CHUNK)으로 맞추고, MAX_CHUNK보다 길면 나눠서 조회한 뒤 합친다.
+ * JPQL/Querydsl 쿼리는 hibernate.query.in_clause_parameter_padding=true 가 패딩을 해주므로 fetchChunked로 chunk만 나누고,
+ * JDBC로 직접 바인딩하는 곳(ShardedMemberRepository)은 pad를 직접 쓴다.
+ */
+public final class InClause {
+
+    /**
+     * 한 쿼리의 in 목록 최대 길이 (Oracle 1000개, SQL Server 2100개 파라미터 제한보다 작게)
+     */
+    public static final int MAX_CHUNK = 512;
+
+    private InClause() {
+    }
+
+    /**
+     * 마지막 값을 반복해서 길이를 다음 2의 거듭제곱으로 맞춘다. in 절에서 중복 값은 결과에 영향이 없다.
+     */
+    public static <T> List<T> pad(List<T> values) {
+        if (values.isEmpty()) {
+            return values;
+        }
+        int size = Integer.highestOneBit(values.size());
+        if (size == values.size()) {
+            return values;
+        }
+        List<T> padded = new ArrayList<>(size * 2);
+        padded.addAll(values);
+        T last = values.get(values.size() - 1);
+        while (padded.size() < size * 2) {
+            padded.add(last);
+        }
+        return padded;
+    }
+
+    /**
+     * 중복을 뺀 values를 MAX_CHUNK개씩 나눠서 query를 실행하고 결과를 순서대로 이어 붙인다.
+     * 한 행이 여러 chunk에 동시에 걸리지 않는 쿼리(값 하나에 대응하는 행을 찾는 in 조건)에만 쓸 것.
+     * chunk는 pad 하지 않는다. (JPQL 쿼리용이라 Hibernate가 패딩)
+     */
+    public static <T, R> List<R> fetchChunked(Collection<T> values, Function<List<T>, List<R>> query) {
+        List<T> distinct = new ArrayList<>(new LinkedHashSet<>(values));
+        if (distinct.isEmpty()) {
+            return List.of();
+        }
+        if (distinct.size() <= MAX_CHUNK) {
+            return query.apply(distinct);
+        }
+        List<R> result = new ArrayList<>();
+        for (int from = 0; from < distinct.size(); from += MAX_CHUNK) {
+            List<T> chunk = distinct.subList(from, Math.min(from + MAX_CHUNK, distinct.size()));
+            result.addAll(query.apply(chunk));
+        }
+        return result;
+    }
+}
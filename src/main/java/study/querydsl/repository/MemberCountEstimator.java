@@ -0,0 +1,47 @@
+package study.querydsl.repository;
+
+import com.querydsl.jpa.impl.JPAQueryFactory;
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import study.querydsl.condition.MemberSearchCondition;
+
+import java.util.OptionalLong;
+
+import static org.springframework.util.StringUtils.hasText;
+import static study.querydsl.domain.QTeam.team;
+import static study.querydsl.domain.QTeamStats.teamStats;
+
+/**
+ * searchPageComplex 의 count 쿼리 대신 쓸 수 있는 회원 수 추정치
+ * - 조건 없음: H2 테이블 통계 (information_schema.tables.row_count_estimate)
+ * - 팀 이름만: team_stats.member_count 합 (TeamStatsEventListener가 유지, 벌크 연산은 재계산 잡까지 어긋날 수 있음)
+ * username/나이 조건이 있으면 인덱스로 범위가 좁혀지므로 추정하지 않는다.
+ */
+@Component
+@RequiredArgsConstructor
+public class MemberCountEstimator {
+
+    private final EntityManager em;
+    private final JPAQueryFactory queryFactory;
+
+    public OptionalLong estimate(MemberSearchCondition condition) {
+        if (hasText(condition.getUsername()) || condition.getAgeGoe() != null || condition.getAgeLoe() != null) {
+            return OptionalLong.empty();
+        }
+        if (!hasText(condition.getTeamName())) {
+            Number rows = (Number) em.createNativeQuery(
+                            "select row_count_estimate from information_schema.tables" +
+                            " where table_schema = current_schema and table_name = 'MEMBER'")
+                    .getSingleResult();
+            return OptionalLong.of(rows.longValue());
+        }
+        Long members = queryFactory
+                .select(teamStats.memberCount.sum())
+                .from(teamStats)
+                .join(team).on(team.id.eq(teamStats.teamId))
+                .where(team.name.eq(condition.getTeamName()))
+                .fetchOne();
+        return OptionalLong.of(members == null ? 0 : members);
+    }
+}
@@ -5,16 +5,34 @@ import com.querydsl.core.types.Predicate;
 import com.querydsl.jpa.impl.JPAQueryFactory;
 import jakarta.persistence.EntityManager;
 import lombok.RequiredArgsConstructor;
+import org.hibernate.Session;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 import study.querydsl.condition.MemberSearchCondition;
+import study.querydsl.config.MemberSearchProperties;
 import study.querydsl.domain.Member;
 import study.querydsl.dto.MemberTeamDto;
 import study.querydsl.dto.QMemberDto;
 import study.querydsl.dto.QMemberTeamDto;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
 
+import static study.querydsl.condition.MemberSearchPredicates.inTeamNamed;
 import static study.querydsl.domain.QMember.member;
 import static study.querydsl.domain.QTeam.team;
 
@@ -22,8 +40,12 @@ import static study.querydsl.domain.QTeam.team;
 @RequiredArgsConstructor
 public class MemberJpaRepository {
 
+    private static final int MULTI_LOAD_BATCH_SIZE = 500;
+
     private final EntityManager em;
     private final JPAQueryFactory queryFactory;
+    private final PlatformTransactionManager transactionManager;
+    private final MemberSearchProperties searchProperties;
 
     public void save(Member member) {
         em.persist(member);
@@ -33,6 +55,27 @@ public class MemberJpaRepository {
         return Optional.ofNullable(em.find(Member.class, id));
     }
 
+    /**
+     * id 목록으로 한 번에 조회한다. findById를 반복하면 id마다 쿼리가 나가므로 Hibernate multiLoad 사용.
+     * 영속성 컨텍스트(그리고 2차 캐시가 설정돼 있으면 2차 캐시)에 있는 회원은 DB에 묻지 않고,
+     * 나머지만 MULTI_LOAD_BATCH_SIZE개씩 끊어서 in 절로 조회한다.
+     * 결과는 ids 순서를 따르고, 중복 id는 한 번만, 없는 id는 빠진다.
+     */
+    @Transactional(readOnly = true)
+    public List<Member> findAllByIds(Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        List<Member> members = em.unwrap(Session.class)
+                .byMultipleIds(Member.class)
+                .withBatchSize(MULTI_LOAD_BATCH_SIZE)
+                .enableSessionCheck(true)
+                .enableOrderedReturn(true)
+                .multiLoad(new ArrayList<>(new LinkedHashSet<>(ids)));
+        members.removeIf(Objects::isNull);
+        return members;
+    }
+
     public List<Member> findAll() {
         return em.createQuery("select m from Member m", Member.class)
                 .getResultList();
@@ -44,11 +87,115 @@ public class MemberJpaRepository {
                 .fetch();
     }
 
+    //keyset 방식: offset 없이 마지막으로 읽은 id 다음부터 size개의 id만 조회
+    public List<Long> findIdsAfter(Long lastId, int size) {
+        return queryFactory
+                .select(member.id)
+                .from(member)
+                .where(lastId != null ? member.id.gt(lastId) : null)
+                .orderBy(member.id.asc())
+                .limit(size)
+                .fetch();
+    }
+
+    public long processInChunks(int chunkSize, Consumer<List<Member>> action) {
+        return processInChunks(chunkSize, 1, action);
+    }
+
+    /**
+     * 전체 회원을 한 번에 올리지 않고 chunkSize 단위로 나눠서 action을 실행한다.
+     * chunk마다 별도 트랜잭션(REQUIRES_NEW)으로 커밋하고, 끝나면 영속성 컨텍스트도 같이 비워진다.
+     * parallelism > 1 이면 chunk를 워커 스레드에 나눠 주되, 처리 중인 chunk가 parallelism * 2개를 넘으면
+     * id 읽기를 멈추고 기다린다. (backpressure)
+     * 한 chunk가 실패하면 그 chunk만 롤백되고 이후 chunk는 더 제출하지 않는다. 이미 커밋된 chunk는 유지된다.
+     * chunk는 keyset으로 읽은 id 목록 그대로 다시 읽는다. (id 범위로 읽으면 그 사이에 커밋된 회원이 섞여 들어온다)
+     *
+     * @return 처리한 회원 수
+     */
+    public long processInChunks(int chunkSize, int parallelism, Consumer<List<Member>> action) {
+        TransactionTemplate chunkTransaction = new TransactionTemplate(transactionManager);
+        chunkTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+
+        ExecutorService executor = parallelism > 1 ? Executors.newFixedThreadPool(parallelism) : null;
+        Semaphore inFlight = new Semaphore(Math.max(parallelism, 1) * 2);
+        AtomicLong processed = new AtomicLong();
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        List<CompletableFuture<Void>> chunks = new ArrayList<>();
+
+        try {
+            Long lastId = null;
+            while (failure.get() == null) {
+                List<Long> ids = findIdsAfter(lastId, chunkSize);
+                if (ids.isEmpty()) {
+                    break;
+                }
+                lastId = ids.get(ids.size() - 1);
+
+                Runnable chunk = () -> {
+                    try {
+                        chunkTransaction.executeWithoutResult(status -> {
+                            List<Member> members = findAllByIdIn(ids);
+                            action.accept(members);
+                            processed.addAndGet(members.size());
+                        });
+                    } catch (Throwable e) {
+                        failure.compareAndSet(null, e);
+                    } finally {
+                        inFlight.release();
+                    }
+                };
+
+                inFlight.acquireUninterruptibly();
+                if (executor == null) {
+                    chunk.run();
+                } else {
+                    chunks.add(CompletableFuture.runAsync(chunk, executor));
+                }
+            }
+            CompletableFuture.allOf(chunks.toArray(new CompletableFuture[0])).join();
+        } finally {
+            if (executor != null) {
+                executor.shutdown();
+            }
+        }
+
+        Throwable e = failure.get();
+        if (e instanceof RuntimeException runtimeException) {
+            throw runtimeException;
+        }
+        if (e instanceof Error error) {
+            throw error;
+        }
+        if (e != null) {
+            throw new IllegalStateException(e);
+        }
+        return processed.get();
+    }
+
+    private List<Member> findAllByIdIn(List<Long> ids) {
+        return InClause.fetchChunked(ids, chunk -> queryFactory
+                .selectFrom(member)
+                .leftJoin(member.team, team).fetchJoin()
+                .where(member.id.in(chunk))
+                .orderBy(member.id.asc())
+                .fetch());
+    }
+
+    @Transactional(readOnly = true)
     public List<Member> findByUsername(String username) {
         return em.createQuery("select m from Member m where m.username = :username", Member.class)
                 .setParameter("username", username)
                 .getResultList();
     }
+    //이름 목록이 길어도 in 목록 길이는 2의 거듭제곱, 최대 InClause.MAX_CHUNK
+    @Transactional(readOnly = true)
+    public List<Member> findByUsernames(Collection<String> usernames) {
+        return InClause.fetchChunked(usernames, chunk -> queryFactory
+                .selectFrom(member)
+                .where(member.username.in(chunk))
+                .fetch());
+    }
+
     public List<Member> findByUsername_Querydsl(String username) {
         return queryFactory
                 .selectFrom(member)
@@ -88,9 +235,10 @@ public class MemberJpaRepository {
                 .where(builder)
                 .fetch();
     }
-    
+
+    @Transactional(readOnly = true)
     public List<MemberTeamDto> search(MemberSearchCondition condition) {
-        return queryFactory
+        List<MemberTeamDto> result = queryFactory
                 .select(new QMemberTeamDto(
                         member.id.as("memberId"),
                         member.username,
@@ -105,15 +253,18 @@ public class MemberJpaRepository {
                         teamNameEq(condition.getTeamName()),
                         ageGoe(condition.getAgeGoe()),
                         ageLoe(condition.getAgeLoe())
-                ).fetch();
+                )
+                .limit(searchProperties.fetchLimit())
+                .setHint("jakarta.persistence.query.timeout", searchProperties.queryTimeoutMillis())
+                .fetch();
+        return SearchResultTooLargeException.requireWithin(result, searchProperties.getMaxResults());
     }
     public List<Member> searchMember(MemberSearchCondition condition) {
         return queryFactory
                 .selectFrom(member)
-                .leftJoin(member.team, team)
                 .where(
                         usernameEq(condition.getUsername()),
-                        teamNameEq(condition.getTeamName()),
+                        inTeamNamed(condition.getTeamName()),
                         ageGoe(condition.getAgeGoe()),
                         ageLoe(condition.getAgeLoe())
                 )
@@ -0,0 +1,63 @@
+package study.querydsl.repository;
+
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+import study.querydsl.dto.MemberTeamDto;
+
+import java.util.List;
+
+/**
+ * 나이 기준 리포트. JPAExpressions 서브쿼리를 where에 넣는 대신 집계를 한 번만 계산해서 join 하거나
+ * window 함수로 한 번 훑어서 끝낸다.
+ * JPQL/Querydsl JPA로는 from 절 서브쿼리와 window 함수를 쓸 수 없어서 Hibernate 6 HQL로 작성했다. (네이티브 SQL 아님 → dialect 그대로)
+ */
+@Repository
+@Transactional(readOnly = true)
+@RequiredArgsConstructor
+public class MemberReportRepository {
+
+    private final EntityManager em;
+
+    //나이가 가장 많은 회원들 (동률이면 모두)
+    public List<MemberTeamDto> findOldestMembers() {
+        return em.createQuery("""
+                        select new study.querydsl.dto.MemberTeamDto(m.id, m.username, m.age, t.id, t.name)
+                        from Member m
+                        left join m.team t
+                        join (select max(x.age) maxAge from Member x) s on m.age = s.maxAge
+                        order by m.id""", MemberTeamDto.class)
+                .getResultList();
+    }
+
+    //평균 나이보다 많은 회원
+    public List<MemberTeamDto> findMembersAboveAverageAge() {
+        return em.createQuery("""
+                        select new study.querydsl.dto.MemberTeamDto(m.id, m.username, m.age, t.id, t.name)
+                        from Member m
+                        left join m.team t
+                        join (select avg(x.age) avgAge from Member x) s on m.age > s.avgAge
+                        order by m.age desc, m.id""", MemberTeamDto.class)
+                .getResultList();
+    }
+
+    /**
+     * 팀마다 나이가 많은 순으로 n명. 동률은 id가 작은 회원이 먼저라서 팀마다 정확히 최대 n명이다.
+     * 팀이 없는 회원은 제외
+     */
+    public List<MemberTeamDto> findTopMembersPerTeam(int n) {
+        return em.createQuery("""
+                        select new study.querydsl.dto.MemberTeamDto(r.memberId, r.username, r.age, r.teamId, r.teamName)
+                        from (
+                            select m.id memberId, m.username username, m.age age, t.id teamId, t.name teamName,
+                                   row_number() over (partition by t.id order by m.age desc, m.id) rowNumber
+                            from Member m
+                            join m.team t
+                        ) r
+                        where r.rowNumber <= :n
+                        order by r.teamId, r.rowNumber""", MemberTeamDto.class)
+                .setParameter("n", n)
+                .getResultList();
+    }
+}
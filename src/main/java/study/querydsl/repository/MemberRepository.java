@@ -2,6 +2,7 @@ package study.querydsl.repository;
 
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.querydsl.QuerydslPredicateExecutor;
+import org.springframework.transaction.annotation.Transactional;
 import study.querydsl.domain.Member;
 
 import java.util.List;
@@ -10,6 +11,7 @@ public interface MemberRepository extends JpaRepository<Member, Long>, MemberRep
     //spring data jpa의 경우 save, findById, findAll을 제공함 -> 즉 만들 필요가 없음
 
     //그러나 findByUsername은 제공하지 않음 -> 아래 처럼 만들면 됨, 메소드 이름으로 추측해서 알아서 쿼리를 쏴줌
+    @Transactional(readOnly = true)
     List<Member> findByUsername(String username);
 
 }
@@ -7,9 +7,14 @@ import study.querydsl.condition.MemberSearchCondition;
 import study.querydsl.dto.MemberTeamDto;
 
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 public interface MemberRepositoryCustom {
     List<MemberTeamDto> search(MemberSearchCondition condition);
     Page<MemberTeamDto> searchPageSimple(MemberSearchCondition condition, Pageable pageable);
     Page<MemberTeamDto> searchPageComplex(MemberSearchCondition condition, Pageable pageable);
+
+    //searchExecutor 스레드에서 실행. 반환된 future를 cancel 하면 같은 검색을 기다리는 호출자가 없을 때만 실행 중인 작업을 interrupt
+    CompletableFuture<List<MemberTeamDto>> searchAsync(MemberSearchCondition condition);
+    CompletableFuture<Page<MemberTeamDto>> searchPageComplexAsync(MemberSearchCondition condition, Pageable pageable);
 }
@@ -7,33 +7,91 @@ import com.querydsl.core.types.dsl.BooleanExpression;
 import com.querydsl.jpa.impl.JPAQuery;
 import com.querydsl.jpa.impl.JPAQueryFactory;
 import jakarta.persistence.EntityManager;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.task.AsyncTaskExecutor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.support.PageableExecutionUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
 import study.querydsl.condition.MemberSearchCondition;
+import study.querydsl.config.MemberSearchProperties;
 import study.querydsl.domain.Member;
+import study.querydsl.dto.ApproximatePage;
 import study.querydsl.dto.MemberTeamDto;
 import study.querydsl.dto.QMemberTeamDto;
+import study.querydsl.index.MemberColumnIndex;
+import study.querydsl.shard.ShardedMemberRepository;
 
 import java.util.List;
+import java.util.OptionalLong;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
 
 import static org.springframework.util.StringUtils.hasText;
+import static study.querydsl.condition.MemberSearchPredicates.inTeamNamed;
 import static study.querydsl.domain.QMember.member;
 import static study.querydsl.domain.QTeam.team;
 
 
 public class MemberRepositoryImpl implements MemberRepositoryCustom {
 
+    private static final String QUERY_TIMEOUT = "jakarta.persistence.query.timeout";
+
     private final JPAQueryFactory queryFactory;
+    //샤딩 설정이 있을 때만 존재 (ShardingConfig)
+    private final ShardedMemberRepository shardedMemberRepository;
+    //member.index.enabled=true 일 때만 존재 (MemberIndexConfig)
+    private final MemberColumnIndex memberIndex;
+    private final AsyncTaskExecutor searchExecutor;
+    private final TransactionTemplate readOnlyTransaction;
+    private final MemberSearchProperties searchProperties;
+    private final MemberSortTranslator sortTranslator;
+    private final MemberCountEstimator countEstimator;
+    private final SingleFlight<SearchKey, List<MemberTeamDto>> searchFlights = new SingleFlight<>();
+    private final SingleFlight<SearchKey, Page<MemberTeamDto>> pageFlights = new SingleFlight<>();
 
-    public MemberRepositoryImpl(EntityManager em) {
+    public MemberRepositoryImpl(EntityManager em,
+                                ObjectProvider<ShardedMemberRepository> shardedMemberRepository,
+                                ObjectProvider<MemberColumnIndex> memberIndex,
+                                @Qualifier("searchExecutor") AsyncTaskExecutor searchExecutor,
+                                PlatformTransactionManager transactionManager,
+                                MemberSearchProperties searchProperties,
+                                MemberSortTranslator sortTranslator,
+                                MemberCountEstimator countEstimator) {
         this.queryFactory = new JPAQueryFactory(em);
+        this.shardedMemberRepository = shardedMemberRepository.getIfAvailable();
+        this.memberIndex = memberIndex.getIfAvailable();
+        this.searchExecutor = searchExecutor;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.searchProperties = searchProperties;
+        this.sortTranslator = sortTranslator;
+        this.countEstimator = countEstimator;
     }
 
     @Override
     public List<MemberTeamDto> search(MemberSearchCondition condition) {
-        return queryFactory
+        if (useIndex()) {
+            return searchIndex(condition);
+        }
+        return coalesce(searchFlights, new SearchKey(condition, null), () -> List.copyOf(fetchSearch(condition)));
+    }
+
+    private List<MemberTeamDto> searchIndex(MemberSearchCondition condition) {
+        return SearchResultTooLargeException.requireWithin(
+                memberIndex.search(condition, searchProperties.fetchLimit()), searchProperties.getMaxResults());
+    }
+
+    private List<MemberTeamDto> fetchSearch(MemberSearchCondition condition) {
+        if (shardedMemberRepository != null) {
+            return shardedMemberRepository.search(condition);
+        }
+        List<MemberTeamDto> result = queryFactory
                 .select(new QMemberTeamDto(
                         member.id.as("memberId"),
                         member.username,
@@ -48,12 +106,23 @@ public class MemberRepositoryImpl implements MemberRepositoryCustom {
                         teamNameEq(condition.getTeamName()),
                         ageGoe(condition.getAgeGoe()),
                         ageLoe(condition.getAgeLoe())
-                ).fetch();
+                )
+                .limit(searchProperties.fetchLimit())
+                .setHint(QUERY_TIMEOUT, searchProperties.queryTimeoutMillis())
+                .fetch();
+        return SearchResultTooLargeException.requireWithin(result, searchProperties.getMaxResults());
 
     }
 
     @Override
+    @Transactional(readOnly = true)
     public Page<MemberTeamDto> searchPageSimple(MemberSearchCondition condition, Pageable pageable) {
+        if (useIndex()) {
+            return memberIndex.page(condition, pageable);
+        }
+        if (shardedMemberRepository != null) {
+            return shardedMemberRepository.searchPage(condition, pageable);
+        }
         QueryResults<MemberTeamDto> result = queryFactory
                 .select(new QMemberTeamDto(
                         member.id.as("memberId"),
@@ -70,8 +139,10 @@ public class MemberRepositoryImpl implements MemberRepositoryCustom {
                         ageGoe(condition.getAgeGoe()),
                         ageLoe(condition.getAgeLoe())
                 )
+                .orderBy(sortTranslator.translate(pageable))
                 .offset(pageable.getOffset())
                 .limit(pageable.getPageSize())
+                .setHint(QUERY_TIMEOUT, searchProperties.queryTimeoutMillis())
                 .fetchResults();
 
         List<MemberTeamDto> content = result.getResults();
@@ -121,6 +192,16 @@ public class MemberRepositoryImpl implements MemberRepositoryCustom {
 
     @Override
     public Page<MemberTeamDto> searchPageComplex(MemberSearchCondition condition, Pageable pageable) {
+        if (useIndex()) {
+            return memberIndex.page(condition, pageable);
+        }
+        return coalesce(pageFlights, new SearchKey(condition, pageable), () -> fetchPageComplex(condition, pageable));
+    }
+
+    private Page<MemberTeamDto> fetchPageComplex(MemberSearchCondition condition, Pageable pageable) {
+        if (shardedMemberRepository != null) {
+            return shardedMemberRepository.searchPage(condition, pageable);
+        }
         List<MemberTeamDto> results = queryFactory
                 .select(new QMemberTeamDto(
                         member.id.as("memberId"),
@@ -137,28 +218,101 @@ public class MemberRepositoryImpl implements MemberRepositoryCustom {
                         ageGoe(condition.getAgeGoe()),
                         ageLoe(condition.getAgeLoe())
                 )
+                .orderBy(sortTranslator.translate(pageable))
                 .offset(pageable.getOffset())
                 .limit(pageable.getPageSize())
+                .setHint(QUERY_TIMEOUT, searchProperties.queryTimeoutMillis())
                 .fetch();
 
+        //team 컬럼을 쓰지 않으므로 join 없이 서브쿼리로 팀을 거른다
         JPAQuery<Member> countQuery = queryFactory
                 .selectFrom(member)
-                .leftJoin(member.team, team)
                 .where(
                         usernameEq(condition.getUsername()),
-                        teamNameEq(condition.getTeamName()),
+                        inTeamNamed(condition.getTeamName()),
                         ageGoe(condition.getAgeGoe()),
                         ageLoe(condition.getAgeLoe())
-                );
+                )
+                .setHint(QUERY_TIMEOUT, searchProperties.queryTimeoutMillis());
 
+        if (searchProperties.getEstimatedTotal().isEnabled()) {
+            return estimatedPage(results, pageable, condition, countQuery);
+        }
         return PageableExecutionUtils.getPage(results, pageable, countQuery::fetchCount);
     }
 
+    /**
+     * count가 필요할 때만(PageableExecutionUtils가 content로 total을 알 수 없을 때) 추정치를 먼저 본다.
+     * 추정할 수 없는 조건이거나 추정치가 exactBelow 미만이면 정확한 count
+     */
+    private Page<MemberTeamDto> estimatedPage(List<MemberTeamDto> results, Pageable pageable,
+                                              MemberSearchCondition condition, JPAQuery<Member> countQuery) {
+        OptionalLong[] estimate = {OptionalLong.empty()};
+        Page<MemberTeamDto> page = PageableExecutionUtils.getPage(results, pageable, () -> {
+            estimate[0] = countEstimator.estimate(condition);
+            if (estimate[0].isPresent() && estimate[0].getAsLong() >= searchProperties.getEstimatedTotal().getExactBelow()) {
+                return estimate[0].getAsLong();
+            }
+            estimate[0] = OptionalLong.empty();
+            return countQuery.fetchCount();
+        });
+        return estimate[0].isPresent() ? new ApproximatePage<>(page.getContent(), pageable, page.getTotalElements()) : page;
+    }
+
+    /**
+     * 인덱스는 커밋된 변경만 반영하므로 쓰기 트랜잭션 안에서는(방금 바꾼 데이터를 읽어야 할 수 있음) DB로 조회한다.
+     * searchPageSimple은 readOnly 트랜잭션으로 실행되므로 트랜잭션 유무가 아니라 readOnly 여부로 본다
+     */
+    private boolean useIndex() {
+        return memberIndex != null && memberIndex.isReady()
+                && (!TransactionSynchronizationManager.isActualTransactionActive()
+                || TransactionSynchronizationManager.isCurrentTransactionReadOnly());
+    }
+
+    /**
+     * 같은 조건의 검색이 동시에 들어오면 먼저 들어온 요청 하나만 readOnly 트랜잭션으로 실행하고 나머지는 그 결과를 같이 받는다.
+     * 기다리는 요청은 트랜잭션(커넥션)을 잡지 않는다.
+     * 이미 트랜잭션 안에서 호출되면 그 트랜잭션에서만 보이는 변경이 있을 수 있으므로 합치지 않고 바로 실행
+     * 같은 결과 객체가 여러 호출자에게 가므로 search는 List.copyOf로, page는 PageImpl(getContent가 읽기 전용)로 넘긴다.
+     */
+    private <T> T coalesce(SingleFlight<SearchKey, T> flights, SearchKey key, Supplier<T> search) {
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            return search.get();
+        }
+        return flights.execute(key, () -> readOnlyTransaction.execute(status -> search.get()));
+    }
+
+    //MemberSearchCondition은 변경 가능한 객체라서 키로 쓸 때는 값을 복사해둔다
+    private record SearchKey(String username, String teamName, Integer ageGoe, Integer ageLoe, Pageable pageable) {
+        SearchKey(MemberSearchCondition condition, Pageable pageable) {
+            this(condition.getUsername(), condition.getTeamName(), condition.getAgeGoe(), condition.getAgeLoe(), pageable);
+        }
+    }
+
 
 
 
 
 
+    /**
+     * 같은 조건의 동기/비동기 검색과 같은 실행을 공유한다. 반환된 future는 호출자마다 따로라서 취소해도 다른 호출자는 결과를 받고,
+     * 같은 검색을 기다리는 호출자가 모두 취소했을 때만 실행 중인 작업을 interrupt 한다.
+     * 풀이 가득 차 있으면 여기서 바로 TaskRejectedException
+     */
+    @Override
+    public CompletableFuture<List<MemberTeamDto>> searchAsync(MemberSearchCondition condition) {
+        return searchFlights.submit(new SearchKey(condition, null), () -> useIndex()
+                ? searchIndex(condition)
+                : readOnlyTransaction.execute(status -> List.copyOf(fetchSearch(condition))), searchExecutor);
+    }
+
+    @Override
+    public CompletableFuture<Page<MemberTeamDto>> searchPageComplexAsync(MemberSearchCondition condition, Pageable pageable) {
+        return pageFlights.submit(new SearchKey(condition, pageable), () -> useIndex()
+                ? memberIndex.page(condition, pageable)
+                : readOnlyTransaction.execute(status -> fetchPageComplex(condition, pageable)), searchExecutor);
+    }
+
     private BooleanExpression usernameEq(String username) {
         return hasText(username) ? member.username.eq(username) : null;
     }
@@ -0,0 +1,31 @@
+package study.querydsl.repository;
+
+import com.querydsl.core.types.dsl.ComparableExpressionBase;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static study.querydsl.domain.QMember.member;
+
+/**
+ * 회원 검색 정렬 key. 이름은 MemberTeamDto 필드명을 따른다.
+ * 모두 member 테이블 인덱스로 정렬할 수 있는 컬럼이다 (Member @Table indexes).
+ * teamName은 team을 join한 뒤 정렬해야 해서 허용하지 않는다.
+ */
+@Component
+public class MemberSortTranslator extends SortTranslator {
+
+    public MemberSortTranslator() {
+        super(member.id, keys());
+    }
+
+    private static Map<String, ComparableExpressionBase<?>> keys() {
+        Map<String, ComparableExpressionBase<?>> keys = new LinkedHashMap<>();
+        keys.put("memberId", member.id);
+        keys.put("username", member.username);
+        keys.put("age", member.age);
+        keys.put("teamId", member.team.id);
+        return keys;
+    }
+}
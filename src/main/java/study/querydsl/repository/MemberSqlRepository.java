@@ -0,0 +1,83 @@
+package study.querydsl.repository;
+
+import com.querydsl.core.types.dsl.BooleanExpression;
+import com.querydsl.sql.Configuration;
+import com.querydsl.sql.H2Templates;
+import com.querydsl.sql.SQLBindings;
+import com.querydsl.sql.SQLQuery;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+import study.querydsl.condition.MemberSearchCondition;
+import study.querydsl.config.MemberSearchProperties;
+import study.querydsl.dto.MemberTeamDto;
+
+import javax.sql.DataSource;
+import java.util.List;
+
+import static org.springframework.util.StringUtils.hasText;
+import static study.querydsl.sql.SMember.member;
+import static study.querydsl.sql.STeam.team;
+
+/**
+ * MemberRepositoryImpl.search 와 같은 검색을 JPA를 거치지 않고 실행한다.
+ * querydsl-sql로 SQL만 만들고 실행은 JdbcTemplate이 하므로 HQL 변환, 영속성 컨텍스트, 결과 변환 없이 ResultSet에서 바로 MemberTeamDto를 만든다.
+ * 트랜잭션은 같은 DataSource라서 @Transactional 안에서 호출하면 JPA와 같은 커넥션을 쓴다. (flush는 하지 않으므로 주의)
+ * DB는 H2만 쓰므로 H2Templates 고정
+ */
+@Repository
+public class MemberSqlRepository {
+
+    private static final Configuration CONFIGURATION = new Configuration(H2Templates.builder().build());
+
+    private static final RowMapper<MemberTeamDto> ROW_MAPPER = (rs, rowNum) -> new MemberTeamDto(
+            rs.getLong(1),
+            rs.getString(2),
+            rs.getInt(3),
+            rs.getObject(4, Long.class),
+            rs.getString(5));
+
+    private final JdbcTemplate jdbcTemplate;
+    private final MemberSearchProperties searchProperties;
+
+    public MemberSqlRepository(DataSource dataSource, MemberSearchProperties searchProperties) {
+        //공용 JdbcTemplate 빈의 timeout을 바꾸지 않도록 따로 만든다. JDBC timeout은 초 단위라서 올림
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.jdbcTemplate.setQueryTimeout(Math.max(1, (int) Math.ceil(searchProperties.queryTimeoutMillis() / 1000.0)));
+        this.searchProperties = searchProperties;
+    }
+
+    public List<MemberTeamDto> search(MemberSearchCondition condition) {
+        SQLBindings sql = new SQLQuery<Void>(CONFIGURATION)
+                .select(member.id, member.username, member.age, team.id, team.name)
+                .from(member)
+                .leftJoin(member.teamFk, team)
+                .where(
+                        usernameEq(condition.getUsername()),
+                        teamNameEq(condition.getTeamName()),
+                        ageGoe(condition.getAgeGoe()),
+                        ageLoe(condition.getAgeLoe())
+                )
+                .limit(searchProperties.fetchLimit())
+                .getSQL();
+        return SearchResultTooLargeException.requireWithin(
+                jdbcTemplate.query(sql.getSQL(), ROW_MAPPER, sql.getNullFriendlyBindings().toArray()),
+                searchProperties.getMaxResults());
+    }
+
+    private BooleanExpression usernameEq(String username) {
+        return hasText(username) ? member.username.eq(username) : null;
+    }
+
+    private BooleanExpression teamNameEq(String teamName) {
+        return hasText(teamName) ? team.name.eq(teamName) : null;
+    }
+
+    private BooleanExpression ageGoe(Integer ageGoe) {
+        return ageGoe != null ? member.age.goe(ageGoe) : null;
+    }
+
+    private BooleanExpression ageLoe(Integer ageLoe) {
+        return ageLoe != null ? member.age.loe(ageLoe) : null;
+    }
+}
@@ -3,18 +3,24 @@ package study.querydsl.repository;
 import com.querydsl.core.BooleanBuilder;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 import study.querydsl.condition.MemberSearchCondition;
 import study.querydsl.domain.Member;
+import study.querydsl.dto.MemberColumns;
 
 import java.util.List;
 import java.util.Optional;
 
+import static study.querydsl.condition.MemberSearchPredicates.inTeamNamed;
 import static study.querydsl.domain.QMember.member;
 import static study.querydsl.domain.QTeam.team;
 
+@Repository
 public class MemberTestRepository extends Querydsl4RepositorySupport {
-    public MemberTestRepository() {
-        super(Member.class);
+
+    public MemberTestRepository(MemberSortTranslator sortTranslator) {
+        super(Member.class, sortTranslator);
     }
 
     public List<Member> basicSelect() {
@@ -31,15 +37,32 @@ public class MemberTestRepository extends Querydsl4RepositorySupport {
     public Page<Member> applyPagination(MemberSearchCondition condition, Pageable pageable) {
         return applyPagination(pageable, query ->
                 query.selectFrom(member)
-                        .leftJoin(member.team, team)
                         .where(usernameEq(condition.getUsername()),
-                                teamNameEq(condition.getTeamName()),
+                                inTeamNamed(condition.getTeamName()),
                                 ageGoe(condition.getAgeGoe()),
                                 ageLoe(condition.getAgeLoe())
                         )
         );
     }
 
+    //통계용 조회: Tuple 대신 id/age/팀 이름을 컬럼 배열로 바로 읽어들인다
+    //scroll 하는 동안 커넥션이 열려 있어야 하므로 트랜잭션 안에서 실행
+    @Transactional(readOnly = true)
+    public MemberColumns fetchColumns(MemberSearchCondition condition) {
+        MemberColumns.Builder columns = MemberColumns.builder(1024);
+        scroll(getQueryFactory().select(member.id, member.age, team.name)
+                        .from(member)
+                        .leftJoin(member.team, team)
+                        .where(usernameEq(condition.getUsername()),
+                                teamNameEq(condition.getTeamName()),
+                                ageGoe(condition.getAgeGoe()),
+                                ageLoe(condition.getAgeLoe())
+                        ),
+                1000,
+                row -> columns.add((Long) row[0], (Integer) row[1], (String) row[2]));
+        return columns.build();
+    }
+
     private BooleanBuilder ageLoe(Integer ageLoe) {
         return Optional.ofNullable(ageLoe)
                 .map(member.age::loe)
@@ -72,7 +95,7 @@ public class MemberTestRepository extends Querydsl4RepositorySupport {
         return applyPagination(pageable, contentQuery ->
                         contentQuery.selectFrom(member)
                                 .where(usernameEq(condition.getUsername()),
-                                        teamNameEq(condition.getTeamName()),
+                                        inTeamNamed(condition.getTeamName()),
                                         ageGoe(condition.getAgeGoe()),
                                         ageLoe(condition.getAgeLoe())
                                 ),
@@ -80,7 +103,7 @@ public class MemberTestRepository extends Querydsl4RepositorySupport {
                         countQuery.select(member.id)
                                 .from(member)
                                 .where(usernameEq(condition.getUsername()),
-                                        teamNameEq(condition.getTeamName()),
+                                        inTeamNamed(condition.getTeamName()),
                                         ageGoe(condition.getAgeGoe()),
                                         ageLoe(condition.getAgeLoe())
                                 ));
@@ -7,6 +7,9 @@ import com.querydsl.jpa.impl.JPAQuery;
 import com.querydsl.jpa.impl.JPAQueryFactory;
 import jakarta.annotation.PostConstruct;
 import jakarta.persistence.EntityManager;
+import org.hibernate.ScrollMode;
+import org.hibernate.ScrollableResults;
+import org.hibernate.query.Query;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
@@ -18,7 +21,13 @@ import org.springframework.data.support.PageableExecutionUtils;
 import org.springframework.stereotype.Repository;
 import org.springframework.util.Assert;
 
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.BiFunction;
+import java.util.function.Consumer;
 import java.util.function.Function;
 
 /**
@@ -30,13 +39,22 @@ import java.util.function.Function;
 @Repository
 public abstract class Querydsl4RepositorySupport {
     private final Class domainClass;
+    private final SortTranslator sortTranslator;
     private Querydsl querydsl;
     private EntityManager entityManager;
     private JPAQueryFactory queryFactory;
 
+    /**
+     * sortTranslator 없이 만들면 applyPagination은 클라이언트 정렬을 받지 않는다 (Sort가 있으면 UnsupportedSortException)
+     */
     public Querydsl4RepositorySupport(Class<?> domainClass) {
+        this(domainClass, null);
+    }
+
+    public Querydsl4RepositorySupport(Class<?> domainClass, SortTranslator sortTranslator) {
         Assert.notNull(domainClass, "Domain class must not be null!");
         this.domainClass = domainClass;
+        this.sortTranslator = sortTranslator;
     }
 
     @Autowired
@@ -82,7 +100,7 @@ public abstract class Querydsl4RepositorySupport {
     protected <T> Page<T> applyPagination(Pageable pageable, Function<JPAQueryFactory, JPAQuery> contentQuery) {
 
         JPAQuery jpaQuery = contentQuery.apply(getQueryFactory());
-        List<T> content = getQuerydsl().applyPagination(pageable, jpaQuery).fetch();
+        List<T> content = paginate(pageable, jpaQuery).fetch();
         return PageableExecutionUtils.getPage(content, pageable, jpaQuery::fetchCount);
     }
 
@@ -93,11 +111,80 @@ public abstract class Querydsl4RepositorySupport {
                     JPAQuery> countQuery) {
 
         JPAQuery jpaContentQuery = contentQuery.apply(getQueryFactory());
-        List<T> content = getQuerydsl().applyPagination(pageable, jpaContentQuery).fetch();
+        List<T> content = paginate(pageable, jpaContentQuery).fetch();
         JPAQuery countResult = countQuery.apply(getQueryFactory());
         return PageableExecutionUtils.getPage(content, pageable,
                 countResult::fetchCount);
     }
 
+    /**
+     * 컬렉션 fetch join이 있는 쿼리를 페이징할 때 사용한다.
+     * fetch join 쿼리에 limit/offset을 걸면 Hibernate가 전체 결과를 메모리에 올린 뒤 잘라내므로
+     * (hibernate.query.fail_on_pagination_over_collection_fetch=true 라서 지금은 예외)
+     * 1) idQuery로 루트 id만 limit/offset 페이징하고 2) 그 id들만 fetch join 해서 읽는다.
+     * 결과는 1)의 id 순서대로 돌려준다.
+     *
+     * @param idQuery 루트 id만 select. 컬렉션 조건 때문에 join을 하면 distinct 필요
+     * @param fetch   받은 id들을 in 조건으로 fetch join 해서 읽는다 (fetch() 또는 행을 묶어서 DTO로)
+     * @param idOf    fetch 결과에서 id를 꺼내는 함수 (순서 복원용)
+     */
+    protected <T, ID> Page<T> applyPaginationByIds(
+            Pageable pageable,
+            Function<JPAQueryFactory, JPAQuery<ID>> idQuery,
+            BiFunction<JPAQueryFactory, List<ID>, List<T>> fetch,
+            Function<T, ID> idOf,
+            Function<JPAQueryFactory, JPAQuery<?>> countQuery) {
+
+        List<ID> ids = paginate(pageable, idQuery.apply(getQueryFactory())).fetch();
+        List<T> content = ids.isEmpty() ? List.of() : inIdOrder(ids, fetch.apply(getQueryFactory(), ids), idOf);
+        JPAQuery<?> countResult = countQuery.apply(getQueryFactory());
+        return PageableExecutionUtils.getPage(content, pageable, countResult::fetchCount);
+    }
+
+    private <T, ID> List<T> inIdOrder(List<ID> ids, List<T> rows, Function<T, ID> idOf) {
+        Map<ID, T> byId = new HashMap<>();
+        rows.forEach(row -> byId.putIfAbsent(idOf.apply(row), row));
+        List<T> ordered = new ArrayList<>(ids.size());
+        for (ID id : ids) {
+            T row = byId.get(id);
+            if (row != null) {
+                ordered.add(row);
+            }
+        }
+        return ordered;
+    }
+
+    //Querydsl.applyPagination은 Sort를 PathBuilder로 아무 속성에나 걸어버리므로 SortTranslator를 거친다
+    private <T> JPAQuery<T> paginate(Pageable pageable, JPAQuery<T> query) {
+        if (pageable.isUnpaged()) {
+            return query;
+        }
+        if (sortTranslator != null) {
+            query.orderBy(sortTranslator.translate(pageable));
+        } else if (pageable.getSort().isSorted()) {
+            throw new UnsupportedSortException(pageable.getSort().iterator().next().getProperty(), Set.of());
+        }
+        return query.offset(pageable.getOffset())
+                .limit(pageable.getPageSize());
+    }
+
+    /**
+     * 결과를 List&lt;Tuple&gt;로 모으지 않고 ScrollableResults로 한 행씩 읽어 rowHandler에 넘긴다.
+     * select 절의 값들이 Object[] 그대로 넘어오므로 호출하는 쪽에서 바로 primitive 배열에 담을 수 있다.
+     * (넘겨받은 Object[]는 다음 행을 읽을 때 버려지는 값이므로 보관하지 말 것)
+     */
+    protected void scroll(JPAQuery<?> query, int fetchSize, Consumer<Object[]> rowHandler) {
+        Query<?> hibernateQuery = query.createQuery().unwrap(Query.class);
+        //Querydsl이 걸어둔 Tuple 변환을 끄고 Object[] 행을 그대로 받는다
+        hibernateQuery.setTupleTransformer((tuple, aliases) -> tuple);
+        hibernateQuery.setFetchSize(fetchSize);
+        hibernateQuery.setReadOnly(true);
+
+        try (ScrollableResults<?> results = hibernateQuery.scroll(ScrollMode.FORWARD_ONLY)) {
+            while (results.next()) {
+                rowHandler.accept((Object[]) results.get());
+            }
+        }
+    }
 
 }
\ No newline at end of file
@@ -0,0 +1,24 @@
+package study.querydsl.repository;
+
+import java.util.List;
+
+/**
+ * 페이징 없는 검색 결과가 member.search.max-results 를 넘었다. MemberController에서 400으로 응답한다.
+ * 앞의 N건만 잘라서 돌려주면 어떤 N건인지 정해져 있지 않고, 잘렸는지도 알 수 없으므로 거절한다.
+ */
+public class SearchResultTooLargeException extends RuntimeException {
+
+    public SearchResultTooLargeException(int maxResults) {
+        super("검색 결과가 " + maxResults + "건을 넘습니다. 조건을 좁히거나 페이징 API(/v3/members, /v4/members)를 사용해야 합니다.");
+    }
+
+    /**
+     * @param result maxResults + 1 건까지 읽은 결과 (MemberSearchProperties.fetchLimit)
+     */
+    public static <T> List<T> requireWithin(List<T> result, int maxResults) {
+        if (result.size() > maxResults) {
+            throw new SearchResultTooLargeException(maxResults);
+        }
+        return result;
+    }
+}
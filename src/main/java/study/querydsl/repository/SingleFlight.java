@@ -0,0 +1,142 @@
+package study.querydsl.repository;
+
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.FutureTask;
+import java.util.function.Supplier;
+
+/**
+ * 같은 key로 동시에 들어온 호출 중 하나만 실제로 실행하고, 나머지는 그 결과(또는 예외)를 같이 받는다.
+ * 실행이 끝나면 key를 지우므로 결과를 캐시하지는 않는다.
+ * 호출자마다 자기 future(copy)를 받으므로 한 호출자가 취소하거나 interrupt 되어도 공유 실행에는 영향이 없다.
+ * submit으로 시작한 실행은 기다리는 호출자가 모두 떠났을 때만 취소(interrupt)한다.
+ */
+public class SingleFlight<K, V> {
+
+    private final ConcurrentHashMap<K, Flight<V>> inFlight = new ConcurrentHashMap<>();
+
+    //호출한 스레드에서 실행. 기다리는 쪽은 interrupt 되면 CancellationException으로 빠져나간다
+    public V execute(K key, Supplier<V> call) {
+        while (true) {
+            Flight<V> flight = new Flight<>();
+            Flight<V> existing = inFlight.putIfAbsent(key, flight);
+            if (existing == null) {
+                return run(key, flight, call);
+            }
+            if (existing.join()) {
+                return await(follow(key, existing));
+            }
+            inFlight.remove(key, existing); //모두 떠나 취소된 실행
+        }
+    }
+
+    //executor에서 실행. 풀이 가득 차 있으면 executor의 예외(TaskRejectedException)가 그대로 나간다
+    public CompletableFuture<V> submit(K key, Supplier<V> call, Executor executor) {
+        while (true) {
+            Flight<V> flight = new Flight<>();
+            Flight<V> existing = inFlight.putIfAbsent(key, flight);
+            if (existing == null) {
+                start(key, flight, call, executor);
+                return follow(key, flight);
+            }
+            if (existing.join()) {
+                return follow(key, existing);
+            }
+            inFlight.remove(key, existing);
+        }
+    }
+
+    private V run(K key, Flight<V> flight, Supplier<V> call) {
+        try {
+            V value = call.get();
+            flight.result.complete(value);
+            return value;
+        } catch (RuntimeException | Error e) {
+            flight.result.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, flight);
+        }
+    }
+
+    private void start(K key, Flight<V> flight, Supplier<V> call, Executor executor) {
+        flight.task = new FutureTask<>(() -> {
+            try {
+                run(key, flight, call);
+            } catch (RuntimeException | Error ignored) {
+                //결과는 flight.result로 전달됨
+            }
+        }, null);
+        try {
+            executor.execute(flight.task);
+        } catch (RuntimeException e) {
+            inFlight.remove(key, flight);
+            flight.result.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    //공유 결과의 copy를 준다. copy가 결과보다 먼저 끝나면(취소, orTimeout 등) 이 호출자는 떠난 것으로 본다
+    private CompletableFuture<V> follow(K key, Flight<V> flight) {
+        CompletableFuture<V> mine = flight.result.copy();
+        mine.whenComplete((value, e) -> {
+            if (!flight.result.isDone() && flight.leave()) {
+                inFlight.remove(key, flight);
+                flight.cancel();
+            }
+        });
+        return mine;
+    }
+
+    private V await(CompletableFuture<V> mine) {
+        try {
+            return mine.get();
+        } catch (InterruptedException e) {
+            mine.cancel(false);
+            Thread.currentThread().interrupt();
+            throw new CancellationException("같은 검색을 기다리는 중 interrupt 됨");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            if (e.getCause() instanceof Error cause) {
+                throw cause;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    private static final class Flight<V> {
+        final CompletableFuture<V> result = new CompletableFuture<>();
+        volatile FutureTask<Void> task; //submit으로 시작한 경우에만 있음
+        private int waiters = 1;
+        private boolean abandoned;
+
+        synchronized boolean join() {
+            if (abandoned) {
+                return false;
+            }
+            waiters++;
+            return true;
+        }
+
+        //마지막으로 떠나는 호출자면 true
+        synchronized boolean leave() {
+            if (--waiters == 0) {
+                abandoned = true;
+            }
+            return abandoned;
+        }
+
+        void cancel() {
+            FutureTask<Void> running = task;
+            if (running != null) {
+                running.cancel(true);
+            }
+            result.cancel(false);
+        }
+    }
+}
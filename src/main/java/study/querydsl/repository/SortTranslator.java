@@ -0,0 +1,147 @@
+package study.querydsl.repository;
+
+import com.querydsl.core.types.Expression;
+import com.querydsl.core.types.Order;
+import com.querydsl.core.types.OrderSpecifier;
+import com.querydsl.core.types.dsl.ComparableExpressionBase;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 클라이언트가 보낸 Sort를 허용된 key → Querydsl path로만 바꾼다.
+ * 인덱스가 받쳐주는 key만 등록하고, 그 외(미등록 컬럼, join한 테이블 컬럼)는 UnsupportedSortException.
+ * 정렬은 key 하나(+ tiebreaker)만 허용한다. 여러 key나 섞인 방향은 (key, id) 인덱스로 처리할 수 없다.
+ * 마지막에 유일한 tiebreaker(보통 PK)를 붙여서 같은 값이 여러 페이지에 걸쳐도 순서가 고정되게 한다.
+ * tiebreaker 방향은 정렬 방향을 따라가야 (age desc, id desc) 인덱스를 역방향으로 그대로 읽을 수 있다.
+ */
+public class SortTranslator {
+
+    /**
+     * offset + size가 이보다 크면 DB가 그만큼 정렬된 행을 건너뛰어야 하므로 deepOffset으로 따로 센다.
+     * 샤드 검색은 샤드마다 offset + size 건을 읽어야 하므로 이보다 깊은 페이지를 거절한다 (DeepOffsetException)
+     */
+    public static final long DEEP_OFFSET = 10_000;
+
+    private final ComparableExpressionBase<?> tiebreaker;
+    private final Map<String, ComparableExpressionBase<?>> indexedKeys;
+    private final Map<String, LongAdder> sortsByKey = new ConcurrentHashMap<>();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder deepOffset = new LongAdder();
+
+    public SortTranslator(ComparableExpressionBase<?> tiebreaker, Map<String, ComparableExpressionBase<?>> indexedKeys) {
+        this.tiebreaker = tiebreaker;
+        this.indexedKeys = Collections.unmodifiableMap(new LinkedHashMap<>(indexedKeys));
+    }
+
+    public OrderSpecifier<?>[] translate(Pageable pageable) {
+        countDeepOffset(pageable);
+        return translate(pageable.getSort());
+    }
+
+    /**
+     * Querydsl을 거치지 않는 검색용. translate(Pageable)과 같이 깊은 offset을 세고 정렬 모양을 검사한다.
+     */
+    public Sort.Order leadingOrder(Pageable pageable) {
+        countDeepOffset(pageable);
+        return leadingOrder(pageable.getSort());
+    }
+
+    private void countDeepOffset(Pageable pageable) {
+        if (pageable.isPaged() && pageable.getOffset() + pageable.getPageSize() > DEEP_OFFSET) {
+            deepOffset.increment();
+        }
+    }
+
+    public OrderSpecifier<?>[] translate(Sort sort) {
+        Sort.Order leading = leadingOrder(sort);
+        if (leading == null) {
+            return new OrderSpecifier[]{orderSpecifier(Order.ASC, tiebreaker, Sort.NullHandling.NATIVE)};
+        }
+        Order direction = leading.isAscending() ? Order.ASC : Order.DESC;
+        ComparableExpressionBase<?> path = indexedKeys.get(leading.getProperty());
+        if (path.equals(tiebreaker)) {
+            return new OrderSpecifier[]{orderSpecifier(direction, path, leading.getNullHandling())};
+        }
+        return new OrderSpecifier[]{
+                orderSpecifier(direction, path, leading.getNullHandling()),
+                orderSpecifier(direction, tiebreaker, Sort.NullHandling.NATIVE)
+        };
+    }
+
+    /**
+     * 인덱스 (key, id) 하나로 처리할 수 있는 모양만 허용한다: key 하나, 또는 key + tiebreaker를 같은 방향으로.
+     * key가 여러 개이거나 방향이 섞이면 (username, age) / (age asc, teamId desc) 받쳐주는 인덱스가 없으므로 UnsupportedSortException.
+     * DB를 거치지 않는 검색(샤드 병합, 메모리 인덱스)도 같은 모양으로 정렬하도록 이 결과를 쓴다.
+     *
+     * @return 첫 정렬 key, 정렬이 없으면 null (tiebreaker 오름차순)
+     */
+    public Sort.Order leadingOrder(Sort sort) {
+        List<Sort.Order> orders = sort.toList();
+        if (orders.isEmpty()) {
+            return null;
+        }
+        for (Sort.Order order : orders) {
+            if (!indexedKeys.containsKey(order.getProperty())) {
+                rejected.increment();
+                throw new UnsupportedSortException(order.getProperty(), indexedKeys.keySet());
+            }
+        }
+        Sort.Order leading = orders.get(0);
+        if (orders.size() > 2 || (orders.size() == 2 && !isTiebreaker(leading, orders.get(1)))) {
+            rejected.increment();
+            throw new UnsupportedSortException(sort, tiebreakerKey());
+        }
+        sortsByKey.computeIfAbsent(leading.getProperty(), key -> new LongAdder()).increment();
+        return leading;
+    }
+
+    private boolean isTiebreaker(Sort.Order leading, Sort.Order second) {
+        return !indexedKeys.get(leading.getProperty()).equals(tiebreaker)
+                && indexedKeys.get(second.getProperty()).equals(tiebreaker)
+                && leading.getDirection() == second.getDirection();
+    }
+
+    private String tiebreakerKey() {
+        return indexedKeys.entrySet().stream()
+                .filter(entry -> entry.getValue().equals(tiebreaker))
+                .map(Map.Entry::getKey)
+                .findFirst()
+                .orElse(tiebreaker.toString());
+    }
+
+    @SuppressWarnings({"rawtypes", "unchecked"})
+    private OrderSpecifier<?> orderSpecifier(Order direction, Expression<?> path, Sort.NullHandling nullHandling) {
+        return switch (nullHandling) {
+            case NULLS_FIRST -> new OrderSpecifier(direction, path, OrderSpecifier.NullHandling.NullsFirst);
+            case NULLS_LAST -> new OrderSpecifier(direction, path, OrderSpecifier.NullHandling.NullsLast);
+            default -> new OrderSpecifier(direction, path);
+        };
+    }
+
+    public Set<String> getKeys() {
+        return indexedKeys.keySet();
+    }
+
+    /**
+     * 정렬 사용 현황. sorts.{key}: key별 정렬 요청 수, rejected: 인덱스 없는 정렬로 거절한 수,
+     * deepOffset: offset이 깊어서 정렬된 행을 많이 건너뛴 요청 수
+     */
+    public Map<String, Long> metrics() {
+        Map<String, Long> metrics = new LinkedHashMap<>();
+        indexedKeys.keySet().forEach(key -> {
+            LongAdder count = sortsByKey.get(key);
+            metrics.put("sorts." + key, count == null ? 0 : count.sum());
+        });
+        metrics.put("rejected", rejected.sum());
+        metrics.put("deepOffset", deepOffset.sum());
+        return metrics;
+    }
+}
@@ -0,0 +1,129 @@
+package study.querydsl.repository;
+
+import com.querydsl.core.Tuple;
+import com.querydsl.core.types.dsl.BooleanExpression;
+import com.querydsl.jpa.JPAExpressions;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+import study.querydsl.domain.Team;
+import study.querydsl.dto.MemberDto;
+import study.querydsl.dto.TeamWithMembersDto;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+import static org.springframework.util.StringUtils.hasText;
+import static study.querydsl.domain.QMember.member;
+import static study.querydsl.domain.QTeam.team;
+
+@Repository
+public class TeamQueryRepository extends Querydsl4RepositorySupport {
+
+    private static final int STREAM_FETCH_SIZE = 500;
+
+    public TeamQueryRepository() {
+        super(Team.class, new SortTranslator(team.id, Map.of("teamId", team.id)));
+    }
+
+    /**
+     * 팀 페이지와 각 팀의 회원을 같이 읽는다. 회원 이름 조건이 있으면 그 회원이 있는 팀만, members는 전체.
+     */
+    @Transactional(readOnly = true)
+    public Page<Team> findWithMembers(String memberUsername, Pageable pageable) {
+        return applyPaginationByIds(pageable,
+                query -> query.select(team.id)
+                        .from(team)
+                        .where(hasMember(memberUsername)),
+                (query, ids) -> query.selectFrom(team)
+                        .leftJoin(team.members, member).fetchJoin()
+                        .where(team.id.in(ids))
+                        .fetch(),
+                Team::getId,
+                query -> query.select(team.id)
+                        .from(team)
+                        .where(hasMember(memberUsername)));
+    }
+
+    /**
+     * 팀 목록 화면용. 팀 id를 페이징한 뒤 그 팀들의 team ⟕ member 를 한 번에 읽어서 팀별 DTO로 묶는다.
+     * 팀마다 members를 따로 조회하지 않으므로 쿼리는 (id, 내용, count) 최대 3번
+     */
+    @Transactional(readOnly = true)
+    public Page<TeamWithMembersDto> findTeamsWithMembers(Pageable pageable) {
+        return applyPaginationByIds(pageable,
+                query -> query.select(team.id)
+                        .from(team),
+                (query, ids) -> {
+                    List<TeamWithMembersDto> teams = new ArrayList<>();
+                    foldByTeam(query.select(team.id, team.name, member.id, member.username, member.age)
+                            .from(team)
+                            .leftJoin(team.members, member)
+                            .where(team.id.in(ids))
+                            .orderBy(team.id.asc(), member.id.asc())
+                            .fetch()
+                            .iterator(), teams::add);
+                    return teams;
+                },
+                TeamWithMembersDto::getTeamId,
+                query -> query.select(team.id)
+                        .from(team));
+    }
+
+    /**
+     * 전체 팀을 DTO로 하나씩 넘긴다. team.id 순으로 정렬된 join 결과를 스트리밍하면서
+     * team.id가 바뀔 때마다 한 팀을 완성해서 action에 넘기므로 메모리에는 팀 하나 분량만 남는다.
+     * GroupBy.iterate는 쓰지 않는다. JPQLTemplates에서는 getResultList로 전체를 읽은 뒤 돌고,
+     * 기본 HQLTemplates에서는 Hibernate 5용 ScrollableResults를 써서 Hibernate 6에서 깨진다.
+     */
+    @Transactional(readOnly = true)
+    public void forEachTeamWithMembers(Consumer<TeamWithMembersDto> action) {
+        try (Stream<Tuple> rows = getQueryFactory()
+                .select(team.id, team.name, member.id, member.username, member.age)
+                .from(team)
+                .leftJoin(team.members, member)
+                .orderBy(team.id.asc(), member.id.asc())
+                .setHint(HibernateHints.HINT_FETCH_SIZE, STREAM_FETCH_SIZE)
+                .stream()) {
+            foldByTeam(rows.iterator(), action);
+        }
+    }
+
+    //rows는 team.id 순. 팀이 바뀔 때 이전 팀을 넘긴다. 회원이 없는 팀은 left join 결과의 member.id가 null → 빈 목록
+    private static void foldByTeam(Iterator<Tuple> rows, Consumer<TeamWithMembersDto> action) {
+        TeamWithMembersDto current = null;
+        while (rows.hasNext()) {
+            Tuple row = rows.next();
+            Long teamId = row.get(team.id);
+            if (current == null || !current.getTeamId().equals(teamId)) {
+                if (current != null) {
+                    action.accept(current);
+                }
+                current = new TeamWithMembersDto(teamId, row.get(team.name), new ArrayList<>());
+            }
+            if (row.get(member.id) != null) {
+                current.getMembers().add(new MemberDto(row.get(member.username), row.get(member.age)));
+            }
+        }
+        if (current != null) {
+            action.accept(current);
+        }
+    }
+
+    //join 대신 exists → id 쿼리에 중복이 생기지 않고 distinct도 필요 없다
+    private BooleanExpression hasMember(String username) {
+        if (!hasText(username)) {
+            return null;
+        }
+        return JPAExpressions.selectOne()
+                .from(member)
+                .where(member.team.eq(team), member.username.eq(username))
+                .exists();
+    }
+}
@@ -0,0 +1,101 @@
+package study.querydsl.repository;
+
+import com.querydsl.core.Tuple;
+import com.querydsl.jpa.impl.JPAQueryFactory;
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+import study.querydsl.dto.TeamAgeStats;
+
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static study.querydsl.domain.QMember.member;
+import static study.querydsl.domain.QTeam.team;
+import static study.querydsl.domain.QTeamStats.teamStats;
+
+@Repository
+@RequiredArgsConstructor
+public class TeamStatsRepository {
+
+    private final EntityManager em;
+    private final JPAQueryFactory queryFactory;
+
+    //팀 수만큼만 읽는다. (회원이 없는 팀은 0으로 나옴)
+    //stale 팀은 TeamStatsRebuildJob.refreshStale 이 돌기 전까지 저장된 min/max가 틀릴 수 있으므로 그 팀들만 member에서 다시 구한다
+    @Transactional(readOnly = true)
+    public List<TeamAgeStats> findAll() {
+        List<Tuple> rows = queryFactory
+                .select(team.id,
+                        team.name,
+                        teamStats.memberCount.coalesce(0L),
+                        teamStats.ageSum.coalesce(0L),
+                        teamStats.minAge.coalesce(0),
+                        teamStats.maxAge.coalesce(0),
+                        teamStats.stale.coalesce(false))
+                .from(team)
+                .leftJoin(teamStats).on(teamStats.teamId.eq(team.id))
+                .orderBy(team.id.asc())
+                .fetch();
+
+        Map<Long, Tuple> staleMinMax = findMinMax(rows.stream()
+                .filter(row -> row.get(6, Boolean.class))
+                .map(row -> row.get(team.id))
+                .toList());
+
+        return rows.stream()
+                .map(row -> {
+                    if (!row.get(6, Boolean.class)) {
+                        return new TeamAgeStats(row.get(team.name), row.get(2, Long.class), row.get(3, Long.class),
+                                row.get(4, Integer.class), row.get(5, Integer.class));
+                    }
+                    //회원이 모두 빠진 팀은 min/max 0
+                    Tuple minMax = staleMinMax.get(row.get(team.id));
+                    return new TeamAgeStats(row.get(team.name), row.get(2, Long.class), row.get(3, Long.class),
+                            minMax != null ? minMax.get(member.age.min()) : 0,
+                            minMax != null ? minMax.get(member.age.max()) : 0);
+                })
+                .toList();
+    }
+
+    private Map<Long, Tuple> findMinMax(List<Long> teamIds) {
+        if (teamIds.isEmpty()) {
+            return Map.of();
+        }
+        return queryFactory
+                .select(member.team.id, member.age.min(), member.age.max())
+                .from(member)
+                .where(member.team.id.in(teamIds))
+                .groupBy(member.team.id)
+                .fetch()
+                .stream()
+                .collect(Collectors.toMap(row -> row.get(member.team.id), Function.identity()));
+    }
+
+    //stale 표시된 팀만 member 테이블에서 다시 계산
+    @Transactional
+    public int refreshStale() {
+        return em.createNativeQuery(
+                        "update team_stats s set" +
+                        " member_count = (select count(*) from member m where m.team_id = s.team_id)," +
+                        " age_sum = (select coalesce(sum(m.age), 0) from member m where m.team_id = s.team_id)," +
+                        " min_age = (select min(m.age) from member m where m.team_id = s.team_id)," +
+                        " max_age = (select max(m.age) from member m where m.team_id = s.team_id)," +
+                        " stale = false" +
+                        " where s.stale = true")
+                .executeUpdate();
+    }
+
+    @Transactional
+    public int rebuildAll() {
+        em.createNativeQuery("delete from team_stats").executeUpdate();
+        return em.createNativeQuery(
+                        "insert into team_stats (team_id, member_count, age_sum, min_age, max_age, stale)" +
+                        " select m.team_id, count(*), sum(m.age), min(m.age), max(m.age), false" +
+                        " from member m where m.team_id is not null group by m.team_id")
+                .executeUpdate();
+    }
+}
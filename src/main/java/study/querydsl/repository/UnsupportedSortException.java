@@ -0,0 +1,19 @@
+package study.querydsl.repository;
+
+import org.springframework.data.domain.Sort;
+
+import java.util.Set;
+
+/**
+ * 허용되지 않은(인덱스가 없는) 정렬 key 또는 조합. MemberController에서 400으로 응답한다.
+ */
+public class UnsupportedSortException extends IllegalArgumentException {
+
+    public UnsupportedSortException(String property, Set<String> allowed) {
+        super("정렬할 수 없는 항목입니다: " + property + " (가능: " + String.join(", ", allowed) + ")");
+    }
+
+    public UnsupportedSortException(Sort sort, String tiebreakerKey) {
+        super("정렬할 수 없는 조합입니다: " + sort + " (정렬 key 하나에 " + tiebreakerKey + "만 같은 방향으로 붙일 수 있습니다)");
+    }
+}
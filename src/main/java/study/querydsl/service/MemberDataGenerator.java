@@ -0,0 +1,82 @@
+package study.querydsl.service;
+
+import study.querydsl.dto.MemberIngestRow;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.SplittableRandom;
+
+/**
+ * 성능 측정용 회원 데이터. 메모리에 쌓지 않고 MemberIngestService로 흘려보낼 수 있도록 Iterable로 만든다.
+ * <ul>
+ *     <li>팀 크기: 앞쪽 팀일수록 회원이 많다 (index = teams * u^2, 상위 30% 팀에 회원의 약 55%)</li>
+ *     <li>username: 흔한 이름일수록 자주 나오고 뒤에 숫자가 붙어서 중복도 생긴다 (kim0412)</li>
+ *     <li>나이: 평균 35, 표준편차 12 정규분포를 10~80으로 자른 값</li>
+ * </ul>
+ */
+public class MemberDataGenerator {
+
+    private static final String[] NAMES = {
+            "kim", "lee", "park", "choi", "jung", "kang", "cho", "yoon", "jang", "lim",
+            "han", "oh", "seo", "shin", "kwon", "hwang", "ahn", "song", "jeon", "hong"
+    };
+
+    private final int teams;
+    private final long seed;
+
+    public MemberDataGenerator(int teams, long seed) {
+        if (teams < 1) {
+            throw new IllegalArgumentException("teams는 1 이상이어야 합니다.");
+        }
+        this.teams = teams;
+        this.seed = seed;
+    }
+
+    public static String teamName(int index) {
+        return "team" + index;
+    }
+
+    /**
+     * [from, to) 번째 회원. 구간을 나눠서 만들어도 한 번에 만든 것과 같은 데이터가 나온다.
+     */
+    public Iterable<MemberIngestRow> rows(long from, long to) {
+        return () -> new Iterator<>() {
+            private long next = from;
+
+            @Override
+            public boolean hasNext() {
+                return next < to;
+            }
+
+            @Override
+            public MemberIngestRow next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                return row(next++);
+            }
+        };
+    }
+
+    MemberIngestRow row(long index) {
+        SplittableRandom random = new SplittableRandom(seed ^ (index * 0x9E3779B97F4A7C15L));
+        return new MemberIngestRow(username(random), age(random), teamName(team(random)));
+    }
+
+    private int team(SplittableRandom random) {
+        double u = random.nextDouble();
+        return Math.min(teams - 1, (int) (teams * u * u));
+    }
+
+    private String username(SplittableRandom random) {
+        double u = random.nextDouble();
+        String name = NAMES[(int) (NAMES.length * u * u)];
+        return name + String.format("%04d", random.nextInt(10_000));
+    }
+
+    private int age(SplittableRandom random) {
+        //Box-Muller
+        double gaussian = Math.sqrt(-2 * Math.log(1 - random.nextDouble())) * Math.cos(2 * Math.PI * random.nextDouble());
+        return (int) Math.max(10, Math.min(80, Math.round(35 + gaussian * 12)));
+    }
+}
@@ -0,0 +1,140 @@
+package study.querydsl.service;
+
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.SessionFactory;
+import org.hibernate.StatelessSession;
+import org.hibernate.Transaction;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import study.querydsl.domain.Member;
+import study.querydsl.domain.Team;
+import study.querydsl.dto.MemberIngestRow;
+import study.querydsl.stats.TeamStatsUpdater;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 대량 회원 적재용. em.persist 대신 StatelessSession + JDBC batch insert를 사용한다.
+ * 영속성 컨텍스트가 없으므로 dirty checking, 1차 캐시가 쌓이지 않는다.
+ * 팀은 이름 → id만 메모리에 들고 있고, id만 채운 Team 객체로 FK를 넣는다. (없는 팀은 새로 생성)
+ * batchSize 건마다 커밋하므로 중간에 실패하면 이전 batch까지는 반영된 상태로 남는다.
+ * 커밋한 batch는 MembersIngestedEvent로 알린다. (Hibernate post-commit 리스너를 거치지 않으므로)
+ */
+@Service
+@RequiredArgsConstructor
+public class MemberIngestService {
+
+    private final EntityManagerFactory emf;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Value("${member.ingest.batch-size:1000}")
+    private int batchSize;
+
+    /**
+     * @return 적재한 회원 수
+     */
+    public long ingest(Iterable<MemberIngestRow> rows) {
+        SessionFactory sessionFactory = emf.unwrap(SessionFactory.class);
+        try (StatelessSession session = sessionFactory.openStatelessSession()) {
+            session.setJdbcBatchSize(batchSize);
+            Map<String, Team> teamRefs = loadTeamRefs(session);
+            Map<Long, TeamDelta> deltas = new HashMap<>();
+            List<MembersIngestedEvent.TeamRow> newTeams = new ArrayList<>();
+            List<MembersIngestedEvent.MemberRow> newMembers = new ArrayList<>();
+
+            long count = 0;
+            Transaction tx = session.beginTransaction();
+            try {
+                for (MemberIngestRow row : rows) {
+                    Team teamRef = row.getTeamName() == null ? null
+                            : teamRefs.computeIfAbsent(row.getTeamName(), name -> insertTeam(session, name, newTeams));
+
+                    //생성자의 changeTeam을 쓰면 teamRef.members에 회원이 계속 쌓이므로 FK만 세팅
+                    Member member = new Member(row.getUsername(), row.getAge());
+                    member.setTeam(teamRef);
+                    session.insert(member);
+                    newMembers.add(new MembersIngestedEvent.MemberRow(member.getId(), row.getUsername(), row.getAge(),
+                            teamRef == null ? null : teamRef.getId(), member.getVersion()));
+
+                    if (teamRef != null) {
+                        deltas.computeIfAbsent(teamRef.getId(), id -> new TeamDelta()).add(row.getAge());
+                    }
+                    if (++count % batchSize == 0) {
+                        applyTeamStats(session, deltas);
+                        tx.commit();
+                        publish(newTeams, newMembers);
+                        tx = session.beginTransaction();
+                    }
+                }
+                applyTeamStats(session, deltas);
+                tx.commit();
+                publish(newTeams, newMembers);
+            } catch (RuntimeException e) {
+                if (tx.isActive()) {
+                    tx.rollback();
+                }
+                throw e;
+            }
+            return count;
+        }
+    }
+
+    private Map<String, Team> loadTeamRefs(StatelessSession session) {
+        Map<String, Team> teamRefs = new HashMap<>();
+        session.createQuery("select t.id, t.name from Team t order by t.id", Object[].class)
+                .getResultList()
+                .forEach(row -> teamRefs.putIfAbsent((String) row[1], teamRef((Long) row[0], (String) row[1])));
+        return teamRefs;
+    }
+
+    private Team insertTeam(StatelessSession session, String name, List<MembersIngestedEvent.TeamRow> newTeams) {
+        Team team = new Team(name);
+        session.insert(team);
+        newTeams.add(new MembersIngestedEvent.TeamRow(team.getId(), name));
+        return teamRef(team.getId(), name);
+    }
+
+    private void publish(List<MembersIngestedEvent.TeamRow> newTeams, List<MembersIngestedEvent.MemberRow> newMembers) {
+        if (!newTeams.isEmpty() || !newMembers.isEmpty()) {
+            eventPublisher.publishEvent(new MembersIngestedEvent(List.copyOf(newTeams), List.copyOf(newMembers)));
+        }
+        newTeams.clear();
+        newMembers.clear();
+    }
+
+    private Team teamRef(Long id, String name) {
+        Team team = new Team(name);
+        team.setId(id);
+        return team;
+    }
+
+    //StatelessSession은 TeamStatsEventListener를 거치지 않으므로 batch 단위로 팀별 합계를 반영
+    private void applyTeamStats(StatelessSession session, Map<Long, TeamDelta> deltas) {
+        session.doWork(connection -> {
+            for (Map.Entry<Long, TeamDelta> entry : deltas.entrySet()) {
+                TeamDelta delta = entry.getValue();
+                TeamStatsUpdater.addMembers(connection, entry.getKey(), delta.count, delta.ageSum, delta.minAge, delta.maxAge);
+            }
+        });
+        deltas.clear();
+    }
+
+    private static class TeamDelta {
+        private long count;
+        private long ageSum;
+        private int minAge = Integer.MAX_VALUE;
+        private int maxAge = Integer.MIN_VALUE;
+
+        void add(int age) {
+            count++;
+            ageSum += age;
+            minAge = Math.min(minAge, age);
+            maxAge = Math.max(maxAge, age);
+        }
+    }
+}
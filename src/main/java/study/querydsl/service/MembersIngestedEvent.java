@@ -0,0 +1,19 @@
+package study.querydsl.service;
+
+import java.util.List;
+
+/**
+ * MemberIngestService가 batch 하나를 커밋한 뒤 발행한다.
+ * StatelessSession은 Hibernate post-commit 이벤트를 보내지 않으므로, 커밋된 변경을 따라가야 하는 쪽(샤드, 메모리 인덱스)은 이 이벤트를 받는다.
+ *
+ * @param teams   이 batch에서 새로 만든 팀
+ * @param members 이 batch에서 넣은 회원
+ */
+public record MembersIngestedEvent(List<TeamRow> teams, List<MemberRow> members) {
+
+    public record TeamRow(long id, String name) {
+    }
+
+    public record MemberRow(long id, String username, int age, Long teamId, long version) {
+    }
+}
@@ -0,0 +1,36 @@
+package study.querydsl.shard;
+
+import java.util.Collection;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * team_id 기준으로 회원이 저장될 샤드를 정한다. 팀이 없는 회원은 0번 샤드
+ */
+public class ShardRouter {
+
+    private final int shardCount;
+
+    public ShardRouter(int shardCount) {
+        if (shardCount < 1) {
+            throw new IllegalArgumentException("shardCount must be positive: " + shardCount);
+        }
+        this.shardCount = shardCount;
+    }
+
+    public int shardCount() {
+        return shardCount;
+    }
+
+    public int shardOf(Long teamId) {
+        return teamId == null ? 0 : Math.floorMod(Long.hashCode(teamId), shardCount);
+    }
+
+    public Set<Integer> shardsOf(Collection<Long> teamIds) {
+        Set<Integer> shards = new TreeSet<>();
+        for (Long teamId : teamIds) {
+            shards.add(shardOf(teamId));
+        }
+        return shards;
+    }
+}
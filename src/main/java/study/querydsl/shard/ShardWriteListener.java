@@ -0,0 +1,112 @@
+package study.querydsl.shard;
+
+import jakarta.persistence.EntityManagerFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.PostCommitDeleteEventListener;
+import org.hibernate.event.spi.PostCommitInsertEventListener;
+import org.hibernate.event.spi.PostCommitUpdateEventListener;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.persister.entity.EntityPersister;
+import org.springframework.context.event.EventListener;
+import study.querydsl.domain.Member;
+import study.querydsl.domain.Team;
+import study.querydsl.service.MembersIngestedEvent;
+
+/**
+ * 기본 DB에 커밋된 Member/Team 변경을 샤드로 옮긴다. (MemberRepository.save, InitMember, 그 외 JPA 쓰기)
+ * id는 기본 DB 시퀀스가 정하고, 회원은 ShardRouter가 정한 샤드에, 팀은 모든 샤드에 upsert 한다.
+ * StatelessSession(MemberIngestService)은 post-commit 이벤트가 없으므로 MembersIngestedEvent로 받는다.
+ * 샤드 쓰기가 실패해도 기본 DB 커밋은 이미 끝났으므로 로그만 남긴다. (다음 변경 때 upsert로 다시 맞춰진다)
+ */
+@Slf4j
+public class ShardWriteListener
+        implements PostCommitInsertEventListener, PostCommitUpdateEventListener, PostCommitDeleteEventListener {
+
+    private final ShardedMemberRepository shardedMemberRepository;
+
+    public ShardWriteListener(EntityManagerFactory emf, ShardedMemberRepository shardedMemberRepository) {
+        this.shardedMemberRepository = shardedMemberRepository;
+        EventListenerRegistry registry = emf.unwrap(SessionFactoryImplementor.class)
+                .getServiceRegistry()
+                .getService(EventListenerRegistry.class);
+        registry.appendListeners(EventType.POST_COMMIT_INSERT, this);
+        registry.appendListeners(EventType.POST_COMMIT_UPDATE, this);
+        registry.appendListeners(EventType.POST_COMMIT_DELETE, this);
+    }
+
+    @Override
+    public void onPostInsert(PostInsertEvent event) {
+        upsert(event.getEntity(), event.getPersister(), event.getId(), event.getState());
+    }
+
+    @Override
+    public void onPostUpdate(PostUpdateEvent event) {
+        upsert(event.getEntity(), event.getPersister(), event.getId(), event.getState());
+    }
+
+    @Override
+    public void onPostDelete(PostDeleteEvent event) {
+        try {
+            if (event.getEntity() instanceof Member) {
+                shardedMemberRepository.removeMember((Long) event.getId());
+            } else if (event.getEntity() instanceof Team) {
+                shardedMemberRepository.removeTeam((Long) event.getId());
+            }
+        } catch (RuntimeException e) {
+            log.error("shard delete failed: {}#{}", event.getEntity().getClass().getSimpleName(), event.getId(), e);
+        }
+    }
+
+    @EventListener
+    public void onIngested(MembersIngestedEvent event) {
+        try {
+            event.teams().forEach(team -> shardedMemberRepository.upsertTeam(team.id(), team.name()));
+            shardedMemberRepository.insertMembers(event.members());
+        } catch (RuntimeException e) {
+            log.error("shard ingest failed: {} teams, {} members", event.teams().size(), event.members().size(), e);
+        }
+    }
+
+    @Override
+    public void onPostInsertCommitFailed(PostInsertEvent event) {
+    }
+
+    @Override
+    public void onPostUpdateCommitFailed(PostUpdateEvent event) {
+    }
+
+    @Override
+    public void onPostDeleteCommitFailed(PostDeleteEvent event) {
+    }
+
+    @Override
+    public boolean requiresPostCommitHandling(EntityPersister persister) {
+        Class<?> entity = persister.getMappedClass();
+        return entity == Member.class || entity == Team.class;
+    }
+
+    private void upsert(Object entity, EntityPersister persister, Object id, Object[] state) {
+        try {
+            if (entity instanceof Member) {
+                Team team = (Team) property(persister, state, "team");
+                shardedMemberRepository.upsertMember((Long) id,
+                        (String) property(persister, state, "username"),
+                        (Integer) property(persister, state, "age"),
+                        team == null ? null : team.getId());
+            } else if (entity instanceof Team) {
+                shardedMemberRepository.upsertTeam((Long) id, (String) property(persister, state, "name"));
+            }
+        } catch (RuntimeException e) {
+            log.error("shard upsert failed: {}#{}", entity.getClass().getSimpleName(), id, e);
+        }
+    }
+
+    private static Object property(EntityPersister persister, Object[] state, String name) {
+        return state[persister.getEntityMetamodel().getPropertyIndex(name)];
+    }
+}
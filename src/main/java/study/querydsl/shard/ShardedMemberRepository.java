@@ -0,0 +1,329 @@
+package study.querydsl.shard;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.support.PageableExecutionUtils;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import study.querydsl.condition.MemberSearchCondition;
+import study.querydsl.config.MemberSearchProperties;
+import study.querydsl.dto.MemberTeamDto;
+import study.querydsl.service.MembersIngestedEvent;
+import study.querydsl.repository.DeepOffsetException;
+import study.querydsl.repository.InClause;
+import study.querydsl.repository.SearchResultTooLargeException;
+import study.querydsl.repository.SortTranslator;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.springframework.util.StringUtils.hasText;
+
+/**
+ * member 테이블을 team_id 기준으로 N개의 DB에 나눠 저장한다. team 테이블은 모든 샤드에 똑같이 복제된다.
+ * - teamName 조건이 있으면 팀 id를 먼저 찾고 해당 팀이 있는 샤드에만 조회
+ * - 그 외에는 모든 샤드에 동시에 조회한 뒤 정렬 순으로 병합 (페이징은 샤드마다 offset + size 만큼 가져와서 병합 후 자른다)
+ * 정렬은 SortTranslator가 허용하는 모양(key 하나 + id)만 받고, 샤드 SQL과 병합 Comparator를 같은 순서로 맞춘다.
+ * 쓰기는 기본 DB(JPA)가 먼저 받고, 커밋된 변경을 ShardWriteListener가 upsert/remove로 옮긴다. id는 기본 DB 시퀀스가 정하므로 샤드 간에 겹치지 않는다.
+ * 샤드 쿼리도 JPA 검색과 같이 member.search.query-timeout / max-results 를 적용한다.
+ */
+public class ShardedMemberRepository implements DisposableBean {
+
+    private static final String SELECT =
+            "select m.id as member_id, m.username, m.age, t.id as team_id, t.name as team_name" +
+            " from member m left join team t on m.team_id = t.id";
+    //팀 조건은 m.team_id in (...) 이라 count에는 team join이 필요 없다
+    private static final String COUNT = "select count(*) from member m";
+
+    private static final RowMapper<MemberTeamDto> ROW_MAPPER = (rs, rowNum) -> new MemberTeamDto(
+            rs.getLong("member_id"),
+            rs.getString("username"),
+            rs.getInt("age"),
+            rs.getObject("team_id", Long.class),
+            rs.getString("team_name"));
+
+    private final List<DataSource> dataSources;
+    //search와 쓰기는 max-results + 1 건, 페이지는 DEEP_OFFSET 건까지만 읽는다 (setMaxRows)
+    private final List<NamedParameterJdbcTemplate> shards;
+    private final List<NamedParameterJdbcTemplate> pageShards;
+    private final ShardRouter router;
+    private final SortTranslator sortTranslator;
+    private final MemberSearchProperties searchProperties;
+    private final ExecutorService executor;
+
+    public ShardedMemberRepository(List<DataSource> dataSources, SortTranslator sortTranslator,
+                                   MemberSearchProperties searchProperties) {
+        this.dataSources = dataSources;
+        this.searchProperties = searchProperties;
+        this.shards = dataSources.stream().map(dataSource -> template(dataSource, searchProperties.fetchLimit())).toList();
+        this.pageShards = dataSources.stream().map(dataSource -> template(dataSource, (int) SortTranslator.DEEP_OFFSET)).toList();
+        this.router = new ShardRouter(dataSources.size());
+        this.sortTranslator = sortTranslator;
+        this.executor = Executors.newFixedThreadPool(dataSources.size());
+    }
+
+    private NamedParameterJdbcTemplate template(DataSource dataSource, int maxRows) {
+        JdbcTemplate template = new JdbcTemplate(dataSource);
+        template.setQueryTimeout(Math.max(1, (int) Math.ceil(searchProperties.queryTimeoutMillis() / 1000.0)));
+        template.setMaxRows(maxRows);
+        return new NamedParameterJdbcTemplate(template);
+    }
+
+    //팀은 모든 샤드에 복제한다
+    public void upsertTeam(Long teamId, String name) {
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("teamId", teamId)
+                .addValue("name", name);
+        for (NamedParameterJdbcTemplate shard : shards) {
+            if (shard.update("update team set name = :name where id = :teamId", params) == 0) {
+                shard.update("insert into team (id, name) values (:teamId, :name)", params);
+            }
+        }
+    }
+
+    public void removeTeam(Long teamId) {
+        MapSqlParameterSource params = new MapSqlParameterSource("teamId", teamId);
+        for (NamedParameterJdbcTemplate shard : shards) {
+            shard.update("delete from team where id = :teamId", params);
+        }
+    }
+
+    //팀이 바뀌면 샤드도 바뀌므로 다른 샤드에 남아 있는 행은 지운다
+    public void upsertMember(Long memberId, String username, int age, Long teamId) {
+        int target = router.shardOf(teamId);
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("memberId", memberId)
+                .addValue("username", username)
+                .addValue("age", age)
+                .addValue("teamId", teamId);
+        for (int i = 0; i < shards.size(); i++) {
+            if (i != target) {
+                shards.get(i).update("delete from member where id = :memberId", params);
+            }
+        }
+        NamedParameterJdbcTemplate shard = shards.get(target);
+        if (shard.update("update member set username = :username, age = :age, team_id = :teamId where id = :memberId", params) == 0) {
+            shard.update("insert into member (id, username, age, team_id) values (:memberId, :username, :age, :teamId)", params);
+        }
+    }
+
+    public void removeMember(Long memberId) {
+        MapSqlParameterSource params = new MapSqlParameterSource("memberId", memberId);
+        for (NamedParameterJdbcTemplate shard : shards) {
+            shard.update("delete from member where id = :memberId", params);
+        }
+    }
+
+    //MemberIngestService의 batch는 새 id만 있으므로 샤드별로 모아서 batch insert
+    public void insertMembers(List<MembersIngestedEvent.MemberRow> members) {
+        Map<Integer, List<MapSqlParameterSource>> byShard = members.stream().collect(Collectors.groupingBy(
+                member -> router.shardOf(member.teamId()),
+                Collectors.mapping(member -> new MapSqlParameterSource()
+                        .addValue("memberId", member.id())
+                        .addValue("username", member.username())
+                        .addValue("age", member.age())
+                        .addValue("teamId", member.teamId()), Collectors.toList())));
+        byShard.forEach((shard, params) -> shards.get(shard).batchUpdate(
+                "insert into member (id, username, age, team_id) values (:memberId, :username, :age, :teamId)",
+                params.toArray(new MapSqlParameterSource[0])));
+    }
+
+    //샤드마다 max-results + 1 건까지만 읽고 id 순으로 병합한다. 넘으면 JPA 검색과 같이 SearchResultTooLargeException
+    public List<MemberTeamDto> search(MemberSearchCondition condition) {
+        int limit = searchProperties.fetchLimit();
+        ShardQuery query = ShardQuery.of(condition, teamIds(condition));
+        MapSqlParameterSource params = query.params().addValue("limit", limit);
+        List<List<MemberTeamDto>> results = scatter(query.shards(router), shards, shard ->
+                shard.query(SELECT + query.where() + ShardOrder.BY_ID.sql() + " limit :limit", params, ROW_MAPPER));
+        return SearchResultTooLargeException.requireWithin(merge(results, ShardOrder.BY_ID, 0, limit),
+                searchProperties.getMaxResults());
+    }
+
+    public Page<MemberTeamDto> searchPage(MemberSearchCondition condition, Pageable pageable) {
+        ShardQuery query = ShardQuery.of(condition, teamIds(condition));
+        Set<Integer> targets = query.shards(router);
+        ShardOrder order = ShardOrder.of(sortTranslator.leadingOrder(pageable));
+
+        //어느 샤드에서 몇 건이 올지 모르므로 샤드마다 offset + size 건을 가져와야 한다 → 깊은 페이지는 거절
+        long fetchSize = pageable.getOffset() + pageable.getPageSize();
+        if (fetchSize > SortTranslator.DEEP_OFFSET) {
+            throw new DeepOffsetException(pageable.getOffset(), pageable.getPageSize());
+        }
+        MapSqlParameterSource params = query.params().addValue("limit", fetchSize);
+        List<List<MemberTeamDto>> results = scatter(targets, pageShards, shard ->
+                shard.query(SELECT + query.where() + order.sql() + " limit :limit", params, ROW_MAPPER));
+        List<MemberTeamDto> content = merge(results, order, pageable.getOffset(), pageable.getPageSize());
+
+        return PageableExecutionUtils.getPage(content, pageable, () -> scatter(targets, shards, shard ->
+                        shard.queryForObject(COUNT + query.where(), query.params(), Long.class))
+                .stream()
+                .mapToLong(Long::longValue)
+                .sum());
+    }
+
+    //팀은 모든 샤드에 복제되어 있으므로 0번 샤드에서 이름으로 id를 찾는다
+    private List<Long> teamIds(MemberSearchCondition condition) {
+        if (!hasText(condition.getTeamName())) {
+            return null;
+        }
+        return shards.get(0).queryForList("select id from team where name = :name",
+                new MapSqlParameterSource("name", condition.getTeamName()), Long.class);
+    }
+
+    //샤드에서 난 예외(타임아웃 등)는 CompletionException을 벗겨서 그대로 던진다
+    private <T> List<T> scatter(Set<Integer> targets, List<NamedParameterJdbcTemplate> templates, ShardCall<T> call) {
+        List<CompletableFuture<T>> futures = targets.stream()
+                .map(index -> CompletableFuture.supplyAsync(() -> call.apply(templates.get(index)), executor))
+                .toList();
+        try {
+            return futures.stream().map(CompletableFuture::join).collect(Collectors.toList());
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    //각 샤드 결과는 order 순으로 정렬되어 있으므로 k-way merge
+    private List<MemberTeamDto> merge(List<List<MemberTeamDto>> results, ShardOrder order, long offset, int size) {
+        PriorityQueue<int[]> heads = new PriorityQueue<>(Comparator.comparing(
+                (int[] head) -> results.get(head[0]).get(head[1]), order.comparator()));
+        IntStream.range(0, results.size())
+                .filter(i -> !results.get(i).isEmpty())
+                .forEach(i -> heads.add(new int[]{i, 0}));
+
+        List<MemberTeamDto> merged = new ArrayList<>();
+        long skipped = 0;
+        while (!heads.isEmpty() && merged.size() < size) {
+            int[] head = heads.poll();
+            List<MemberTeamDto> shardResult = results.get(head[0]);
+            if (skipped < offset) {
+                skipped++;
+            } else {
+                merged.add(shardResult.get(head[1]));
+            }
+            if (head[1] + 1 < shardResult.size()) {
+                heads.add(new int[]{head[0], head[1] + 1});
+            }
+        }
+        return merged;
+    }
+
+    @Override
+    public void destroy() throws Exception {
+        executor.shutdown();
+        for (DataSource dataSource : dataSources) {
+            if (dataSource instanceof AutoCloseable closeable) {
+                closeable.close();
+            }
+        }
+    }
+
+    @FunctionalInterface
+    private interface ShardCall<T> {
+        T apply(NamedParameterJdbcTemplate shard);
+    }
+
+    /**
+     * 샤드 SQL의 order by와 병합 Comparator. 둘이 어긋나면 병합 결과가 섞이므로 한 곳에서 같이 만든다.
+     * null 위치는 SQL에 명시해서 DB 기본값에 기대지 않는다. (NATIVE는 asc면 앞, desc면 뒤)
+     */
+    private record ShardOrder(String sql, Comparator<MemberTeamDto> comparator) {
+
+        static final ShardOrder BY_ID = new ShardOrder(" order by m.id asc", Comparator.comparing(MemberTeamDto::getMemberId));
+
+        private static final Map<String, String> COLUMNS = Map.of(
+                "memberId", "m.id",
+                "username", "m.username",
+                "age", "m.age",
+                "teamId", "m.team_id");
+
+        static ShardOrder of(Sort.Order leading) {
+            if (leading == null) {
+                return BY_ID;
+            }
+            String column = COLUMNS.get(leading.getProperty());
+            if (column == null) {
+                throw new IllegalStateException("샤드에서 정렬할 컬럼이 없습니다: " + leading.getProperty());
+            }
+            boolean ascending = leading.isAscending();
+            String direction = ascending ? " asc" : " desc";
+            Comparator<MemberTeamDto> byId = Comparator.comparing(MemberTeamDto::getMemberId, direction(ascending));
+            if (column.equals("m.id")) {
+                return new ShardOrder(" order by m.id" + direction, byId);
+            }
+            boolean nullsFirst = switch (leading.getNullHandling()) {
+                case NULLS_FIRST -> true;
+                case NULLS_LAST -> false;
+                default -> ascending;
+            };
+            String sql = " order by " + column + direction + (nullsFirst ? " nulls first" : " nulls last") + ", m.id" + direction;
+            return new ShardOrder(sql, key(leading.getProperty(), ascending, nullsFirst).thenComparing(byId));
+        }
+
+        private static Comparator<MemberTeamDto> key(String property, boolean ascending, boolean nullsFirst) {
+            return switch (property) {
+                case "username" -> Comparator.comparing(MemberTeamDto::getUsername, nulls(ascending, nullsFirst));
+                case "age" -> Comparator.comparing(MemberTeamDto::getAge, direction(ascending));
+                default -> Comparator.comparing(MemberTeamDto::getTeamId, nulls(ascending, nullsFirst));
+            };
+        }
+
+        private static <T extends Comparable<? super T>> Comparator<T> nulls(boolean ascending, boolean nullsFirst) {
+            return nullsFirst ? Comparator.nullsFirst(direction(ascending)) : Comparator.nullsLast(direction(ascending));
+        }
+
+        private static <T extends Comparable<? super T>> Comparator<T> direction(boolean ascending) {
+            return ascending ? Comparator.naturalOrder() : Comparator.reverseOrder();
+        }
+    }
+
+    private record ShardQuery(String where, MapSqlParameterSource params, List<Long> teamIds) {
+
+        static ShardQuery of(MemberSearchCondition condition, List<Long> teamIds) {
+            StringBuilder where = new StringBuilder(" where 1 = 1");
+            MapSqlParameterSource params = new MapSqlParameterSource();
+            if (hasText(condition.getUsername())) {
+                where.append(" and m.username = :username");
+                params.addValue("username", condition.getUsername());
+            }
+            if (teamIds != null) {
+                //이름이 같은 팀이 여러 개일 수 있으므로 in
+                where.append(teamIds.isEmpty() ? " and 1 = 0" : " and m.team_id in (:teamIds)");
+                params.addValue("teamIds", InClause.pad(teamIds));
+            }
+            if (condition.getAgeGoe() != null) {
+                where.append(" and m.age >= :ageGoe");
+                params.addValue("ageGoe", condition.getAgeGoe());
+            }
+            if (condition.getAgeLoe() != null) {
+                where.append(" and m.age <= :ageLoe");
+                params.addValue("ageLoe", condition.getAgeLoe());
+            }
+            return new ShardQuery(where.toString(), params, teamIds);
+        }
+
+        Set<Integer> shards(ShardRouter router) {
+            if (teamIds != null) {
+                return router.shardsOf(teamIds);
+            }
+            return IntStream.range(0, router.shardCount()).boxed().collect(Collectors.toSet());
+        }
+    }
+}
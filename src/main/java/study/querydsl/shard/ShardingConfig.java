@@ -0,0 +1,52 @@
+package study.querydsl.shard;
+
+import com.zaxxer.hikari.HikariDataSource;
+import jakarta.persistence.EntityManagerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Lazy;
+import study.querydsl.config.MemberSearchProperties;
+import study.querydsl.repository.MemberSortTranslator;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * sharding.datasources[n].url 이 설정되면 회원 검색을 샤드로 보낸다.
+ * 샤드 DataSource는 빈으로 등록하지 않는다. (애플리케이션 기본 DataSource와 섞이지 않도록)
+ * 쓰기는 기본 DB가 받고(id 시퀀스 포함) ShardWriteListener가 커밋된 변경을 샤드로 옮긴다.
+ */
+@Configuration
+@ConditionalOnProperty("sharding.datasources[0].url")
+@EnableConfigurationProperties(ShardingProperties.class)
+public class ShardingConfig {
+
+    @Bean
+    ShardedMemberRepository shardedMemberRepository(ShardingProperties properties, MemberSortTranslator sortTranslator,
+                                                    MemberSearchProperties searchProperties) {
+        List<DataSource> dataSources = new ArrayList<>();
+        for (int i = 0; i < properties.getDatasources().size(); i++) {
+            ShardingProperties.Shard shard = properties.getDatasources().get(i);
+            HikariDataSource dataSource = DataSourceBuilder.create()
+                    .type(HikariDataSource.class)
+                    .url(shard.getUrl())
+                    .username(shard.getUsername())
+                    .password(shard.getPassword())
+                    .build();
+            dataSource.setPoolName("shard-" + i);
+            dataSources.add(dataSource);
+        }
+        return new ShardedMemberRepository(dataSources, sortTranslator, searchProperties);
+    }
+
+    //JPA 쓰기는 기본 DB로 가므로 커밋된 변경을 샤드로 옮기는 리스너가 없으면 새 회원이 검색에 나오지 않는다
+    @Bean
+    @Lazy(false) //spring.main.lazy-initialization=true 여도 기동 시 등록
+    ShardWriteListener shardWriteListener(EntityManagerFactory emf, ShardedMemberRepository shardedMemberRepository) {
+        return new ShardWriteListener(emf, shardedMemberRepository);
+    }
+}
@@ -0,0 +1,23 @@
+package study.querydsl.shard;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Getter
+@Setter
+@ConfigurationProperties("sharding")
+public class ShardingProperties {
+    private List<Shard> datasources = new ArrayList<>();
+
+    @Getter
+    @Setter
+    public static class Shard {
+        private String url;
+        private String username;
+        private String password;
+    }
+}
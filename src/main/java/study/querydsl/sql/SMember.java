@@ -0,0 +1,53 @@
+package study.querydsl.sql;
+
+import com.querydsl.core.types.Path;
+import com.querydsl.core.types.PathMetadata;
+import com.querydsl.core.types.dsl.NumberPath;
+import com.querydsl.core.types.dsl.StringPath;
+import com.querydsl.sql.ColumnMetadata;
+import com.querydsl.sql.ForeignKey;
+import com.querydsl.sql.PrimaryKey;
+import com.querydsl.sql.RelationalPathBase;
+
+import java.sql.Types;
+
+import static com.querydsl.core.types.PathMetadataFactory.forVariable;
+
+/**
+ * member 테이블 (querydsl-sql). 엔티티가 아니라 db/schema.sql 기준이므로 컬럼이 바뀌면 같이 고친다.
+ * querydsl-sql codegen 결과와 같은 모양으로 직접 작성 (빌드 중에 DB에 붙어서 생성할 수 없음)
+ */
+public class SMember extends RelationalPathBase<SMember> {
+
+    public static final SMember member = new SMember("member");
+
+    public final NumberPath<Long> id = createNumber("id", Long.class);
+    public final StringPath username = createString("username");
+    public final NumberPath<Integer> age = createNumber("age", Integer.class);
+    public final NumberPath<Long> teamId = createNumber("teamId", Long.class);
+
+    public final PrimaryKey<SMember> primary = createPrimaryKey(id);
+    public final ForeignKey<STeam> teamFk = createForeignKey(teamId, "id");
+
+    public SMember(String variable) {
+        super(SMember.class, forVariable(variable), "PUBLIC", "member");
+        addMetadata();
+    }
+
+    public SMember(Path<? extends SMember> path) {
+        super(path.getType(), path.getMetadata(), "PUBLIC", "member");
+        addMetadata();
+    }
+
+    public SMember(PathMetadata metadata) {
+        super(SMember.class, metadata, "PUBLIC", "member");
+        addMetadata();
+    }
+
+    private void addMetadata() {
+        addMetadata(age, ColumnMetadata.named("age").withIndex(1).ofType(Types.INTEGER).withSize(32).notNull());
+        addMetadata(id, ColumnMetadata.named("id").withIndex(2).ofType(Types.BIGINT).withSize(64).notNull());
+        addMetadata(teamId, ColumnMetadata.named("team_id").withIndex(3).ofType(Types.BIGINT).withSize(64));
+        addMetadata(username, ColumnMetadata.named("username").withIndex(4).ofType(Types.VARCHAR).withSize(255));
+    }
+}
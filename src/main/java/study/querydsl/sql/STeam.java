@@ -0,0 +1,46 @@
+package study.querydsl.sql;
+
+import com.querydsl.core.types.Path;
+import com.querydsl.core.types.PathMetadata;
+import com.querydsl.core.types.dsl.NumberPath;
+import com.querydsl.core.types.dsl.StringPath;
+import com.querydsl.sql.ColumnMetadata;
+import com.querydsl.sql.PrimaryKey;
+import com.querydsl.sql.RelationalPathBase;
+
+import java.sql.Types;
+
+import static com.querydsl.core.types.PathMetadataFactory.forVariable;
+
+/**
+ * team 테이블 (querydsl-sql). SMember 참고
+ */
+public class STeam extends RelationalPathBase<STeam> {
+
+    public static final STeam team = new STeam("team");
+
+    public final NumberPath<Long> id = createNumber("id", Long.class);
+    public final StringPath name = createString("name");
+
+    public final PrimaryKey<STeam> primary = createPrimaryKey(id);
+
+    public STeam(String variable) {
+        super(STeam.class, forVariable(variable), "PUBLIC", "team");
+        addMetadata();
+    }
+
+    public STeam(Path<? extends STeam> path) {
+        super(path.getType(), path.getMetadata(), "PUBLIC", "team");
+        addMetadata();
+    }
+
+    public STeam(PathMetadata metadata) {
+        super(STeam.class, metadata, "PUBLIC", "team");
+        addMetadata();
+    }
+
+    private void addMetadata() {
+        addMetadata(id, ColumnMetadata.named("id").withIndex(1).ofType(Types.BIGINT).withSize(64).notNull());
+        addMetadata(name, ColumnMetadata.named("name").withIndex(2).ofType(Types.VARCHAR).withSize(255));
+    }
+}
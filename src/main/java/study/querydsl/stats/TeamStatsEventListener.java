@@ -0,0 +1,110 @@
+package study.querydsl.stats;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.*;
+import org.hibernate.persister.entity.EntityPersister;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.stereotype.Component;
+import study.querydsl.domain.Member;
+import study.querydsl.domain.Team;
+
+import java.util.Objects;
+
+/**
+ * Member 저장/수정/삭제(팀 변경 포함) 시점에 team_stats를 증분 갱신한다.
+ * flush 중 같은 커넥션으로 SQL을 실행하므로 Member 변경과 같은 트랜잭션으로 커밋/롤백된다.
+ * 벌크 update/delete JPQL은 이벤트가 발생하지 않으므로 TeamStatsRebuildJob이 주기적으로 보정한다.
+ * StatelessSession은 session 없이 이벤트를 보내므로 여기서는 무시하고, 호출한 쪽(MemberIngestService)이 팀 단위로 모아서 반영한다.
+ */
+@Lazy(false) //spring.main.lazy-initialization=true 여도 기동 시 등록
+@Component
+@RequiredArgsConstructor
+public class TeamStatsEventListener implements PostInsertEventListener, PostUpdateEventListener, PostDeleteEventListener {
+
+    private final EntityManagerFactory emf;
+
+    @PostConstruct
+    public void register() {
+        EventListenerRegistry registry = emf.unwrap(SessionFactoryImplementor.class)
+                .getServiceRegistry()
+                .getService(EventListenerRegistry.class);
+        registry.appendListeners(EventType.POST_INSERT, this);
+        registry.appendListeners(EventType.POST_UPDATE, this);
+        registry.appendListeners(EventType.POST_DELETE, this);
+    }
+
+    @Override
+    public void onPostInsert(PostInsertEvent event) {
+        if (event.getSession() != null && event.getEntity() instanceof Member) {
+            EntityPersister persister = event.getPersister();
+            add(event.getSession(), teamId(persister, event.getState()), age(persister, event.getState()));
+        }
+    }
+
+    @Override
+    public void onPostUpdate(PostUpdateEvent event) {
+        if (event.getSession() == null || !(event.getEntity() instanceof Member)) {
+            return;
+        }
+        EntityPersister persister = event.getPersister();
+        Object[] oldState = event.getOldState();
+        Object[] state = event.getState();
+        if (oldState == null) {
+            //이전 값을 모르는 경우(detached update 등)는 재계산 잡에 맡긴다
+            return;
+        }
+
+        Long oldTeamId = teamId(persister, oldState);
+        Long newTeamId = teamId(persister, state);
+        int oldAge = age(persister, oldState);
+        int newAge = age(persister, state);
+        if (Objects.equals(oldTeamId, newTeamId) && oldAge == newAge) {
+            return;
+        }
+        remove(event.getSession(), oldTeamId, oldAge);
+        add(event.getSession(), newTeamId, newAge);
+    }
+
+    @Override
+    public void onPostDelete(PostDeleteEvent event) {
+        if (event.getSession() == null) {
+            return;
+        }
+        if (event.getEntity() instanceof Member) {
+            EntityPersister persister = event.getPersister();
+            remove(event.getSession(), teamId(persister, event.getDeletedState()), age(persister, event.getDeletedState()));
+        } else if (event.getEntity() instanceof Team) {
+            event.getSession().doWork(connection -> TeamStatsUpdater.deleteTeam(connection, event.getId()));
+        }
+    }
+
+    @Override
+    public boolean requiresPostCommitHandling(EntityPersister persister) {
+        return false;
+    }
+
+    private void add(EventSource session, Long teamId, int age) {
+        if (teamId != null) {
+            session.doWork(connection -> TeamStatsUpdater.addMember(connection, teamId, age));
+        }
+    }
+
+    private void remove(EventSource session, Long teamId, int age) {
+        if (teamId != null) {
+            session.doWork(connection -> TeamStatsUpdater.removeMember(connection, teamId, age));
+        }
+    }
+
+    private static Long teamId(EntityPersister persister, Object[] state) {
+        Team team = (Team) state[persister.getEntityMetamodel().getPropertyIndex("team")];
+        return team == null ? null : team.getId();
+    }
+
+    private static int age(EntityPersister persister, Object[] state) {
+        return (Integer) state[persister.getEntityMetamodel().getPropertyIndex("age")];
+    }
+}
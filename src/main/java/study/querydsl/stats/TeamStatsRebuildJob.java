@@ -0,0 +1,35 @@
+package study.querydsl.stats;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import study.querydsl.repository.TeamStatsRepository;
+
+/**
+ * 벌크 연산 등으로 이벤트 없이 바뀐 데이터 때문에 team_stats가 틀어질 수 있으므로 주기적으로 전체 재계산
+ */
+@Slf4j
+@Lazy(false) //spring.main.lazy-initialization=true 여도 기동 시 등록
+@Component
+@RequiredArgsConstructor
+public class TeamStatsRebuildJob {
+
+    private final TeamStatsRepository teamStatsRepository;
+
+    //최소/최대 나이 회원이 빠진 팀만 다시 계산해 저장 (조회는 그 전까지 stale 팀의 min/max를 member에서 직접 구한다)
+    @Scheduled(fixedDelayString = "${team-stats.refresh-stale-delay:60000}")
+    public void refreshStale() {
+        int teams = teamStatsRepository.refreshStale();
+        if (teams > 0) {
+            log.info("team_stats stale teams refreshed. teams={}", teams);
+        }
+    }
+
+    @Scheduled(cron = "${team-stats.rebuild-cron:0 0 4 * * *}")
+    public void rebuild() {
+        int teams = teamStatsRepository.rebuildAll();
+        log.info("team_stats rebuilt. teams={}", teams);
+    }
+}
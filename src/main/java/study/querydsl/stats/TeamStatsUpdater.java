@@ -0,0 +1,60 @@
+package study.querydsl.stats;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+
+/**
+ * team_stats 증분 갱신 SQL 모음. 호출하는 쪽의 커넥션(트랜잭션)에서 실행된다.
+ */
+public final class TeamStatsUpdater {
+
+    private static final String ADD_MEMBERS =
+            "merge into team_stats s" +
+            " using (select cast(? as bigint) team_id, cast(? as bigint) cnt, cast(? as bigint) age_sum," +
+            "  cast(? as int) min_age, cast(? as int) max_age) d" +
+            " on (s.team_id = d.team_id)" +
+            " when matched then update set" +
+            "  member_count = s.member_count + d.cnt," +
+            "  age_sum = s.age_sum + d.age_sum," +
+            "  min_age = least(coalesce(s.min_age, d.min_age), d.min_age)," +
+            "  max_age = greatest(coalesce(s.max_age, d.max_age), d.max_age)" +
+            " when not matched then insert (team_id, member_count, age_sum, min_age, max_age, stale)" +
+            "  values (d.team_id, d.cnt, d.age_sum, d.min_age, d.max_age, false)";
+
+    //최소/최대값을 가진 회원이 빠지면 새 min/max를 알 수 없으므로 stale 표시만 해둔다
+    private static final String REMOVE_MEMBER =
+            "update team_stats set member_count = member_count - 1, age_sum = age_sum - ?," +
+            " stale = (stale or ? <= min_age or ? >= max_age)" +
+            " where team_id = ?";
+
+    private static final String DELETE_TEAM = "delete from team_stats where team_id = ?";
+
+    private TeamStatsUpdater() {
+    }
+
+    public static void addMember(Connection connection, Long teamId, int age) throws SQLException {
+        addMembers(connection, teamId, 1, age, age, age);
+    }
+
+    public static void addMembers(Connection connection, Long teamId, long count, long ageSum, int minAge, int maxAge) throws SQLException {
+        execute(connection, ADD_MEMBERS, teamId, count, ageSum, minAge, maxAge);
+    }
+
+    public static void removeMember(Connection connection, Long teamId, int age) throws SQLException {
+        execute(connection, REMOVE_MEMBER, age, age, age, teamId);
+    }
+
+    public static void deleteTeam(Connection connection, Object teamId) throws SQLException {
+        execute(connection, DELETE_TEAM, teamId);
+    }
+
+    private static void execute(Connection connection, String sql, Object... params) throws SQLException {
+        try (PreparedStatement ps = connection.prepareStatement(sql)) {
+            for (int i = 0; i < params.length; i++) {
+                ps.setObject(i + 1, params[i]);
+            }
+            ps.executeUpdate();
+        }
+    }
+}
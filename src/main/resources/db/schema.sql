@@ -0,0 +1,13 @@
+-- spring.profiles.active=faststart 는 스키마를 만들지 않는다 (ddl-auto=none). 배포 전에 한 번 적용해 둘 것.
+-- 엔티티가 바뀌면 jakarta.persistence.schema-generation.scripts.action=create 로 다시 뽑아서 맞춘다.
+create sequence if not exists hello_seq start with 1 increment by 50;
+create sequence if not exists member_seq start with 1 increment by 50;
+create sequence if not exists team_seq start with 1 increment by 50;
+create table if not exists hello (id bigint not null, primary key (id));
+create table if not exists member (age integer not null, id bigint not null, team_id bigint, version bigint, username varchar(255), primary key (id));
+create table if not exists team (id bigint not null, name varchar(255), primary key (id));
+create table if not exists team_stats (max_age integer, min_age integer, stale boolean not null, age_sum bigint not null, member_count bigint not null, team_id bigint not null, primary key (team_id));
+create index if not exists idx_member_username on member (username, id);
+create index if not exists idx_member_age on member (age, id);
+create index if not exists idx_member_team on member (team_id, id);
+alter table member add constraint if not exists FKcjte2jn9pvo9ud2hyfgwcja0k foreign key (team_id) references team;
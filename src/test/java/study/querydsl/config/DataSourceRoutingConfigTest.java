@@ -0,0 +1,81 @@
+package study.querydsl.config;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+//H2 메모리 DB 두 개를 primary / replica로 두고 라우팅만 검증
+class DataSourceRoutingConfigTest {
+
+    DataSource primary = new DriverManagerDataSource("jdbc:h2:mem:routing-primary;DB_CLOSE_DELAY=-1", "sa", "");
+    DataSource replica = new DriverManagerDataSource("jdbc:h2:mem:routing-replica;DB_CLOSE_DELAY=-1", "sa", "");
+
+    ReplicaLagMonitor monitor;
+    JdbcTemplate jdbcTemplate;
+    TransactionTemplate readTx;
+    TransactionTemplate writeTx;
+
+    @BeforeEach
+    public void before() {
+        JdbcTemplate primaryJdbc = new JdbcTemplate(primary);
+        primaryJdbc.execute("create table if not exists node (name varchar(20))");
+        primaryJdbc.execute("delete from node");
+        primaryJdbc.execute("insert into node values ('primary')");
+
+        JdbcTemplate replicaJdbc = new JdbcTemplate(replica);
+        replicaJdbc.execute("create table if not exists node (name varchar(20))");
+        replicaJdbc.execute("delete from node");
+        replicaJdbc.execute("insert into node values ('replica')");
+        replicaJdbc.execute("create table if not exists replica_lag (lag_seconds int)");
+        replicaJdbc.execute("delete from replica_lag");
+        replicaJdbc.execute("insert into replica_lag values (0)");
+
+        monitor = new ReplicaLagMonitor(replica, "select lag_seconds from replica_lag", Duration.ofSeconds(5));
+        DataSource routing = DataSourceRoutingConfig.routingDataSource(primary, replica, monitor);
+        jdbcTemplate = new JdbcTemplate(routing);
+
+        DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(routing);
+        readTx = new TransactionTemplate(transactionManager);
+        readTx.setReadOnly(true);
+        writeTx = new TransactionTemplate(transactionManager);
+    }
+
+    @Test
+    public void readOnlyGoesToReplica() {
+        monitor.check();
+
+        assertThat(nodeOf(readTx)).isEqualTo("replica");
+        assertThat(nodeOf(writeTx)).isEqualTo("primary");
+    }
+
+    @Test
+    public void readsGoToPrimaryUntilFirstCheck() {
+        assertThat(nodeOf(readTx)).isEqualTo("primary");
+
+        monitor.check();
+        assertThat(nodeOf(readTx)).isEqualTo("replica");
+    }
+
+    @Test
+    public void laggingReplicaFallsBackToPrimary() {
+        new JdbcTemplate(replica).update("update replica_lag set lag_seconds = 30");
+        monitor.check();
+        assertThat(nodeOf(readTx)).isEqualTo("primary");
+
+        new JdbcTemplate(replica).update("update replica_lag set lag_seconds = 1");
+        monitor.check();
+        assertThat(nodeOf(readTx)).isEqualTo("replica");
+    }
+
+    private String nodeOf(TransactionTemplate transactionTemplate) {
+        return transactionTemplate.execute(status -> jdbcTemplate.queryForObject("select name from node", String.class));
+    }
+}
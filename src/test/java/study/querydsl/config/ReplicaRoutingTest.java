@@ -0,0 +1,63 @@
+package study.querydsl.config;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.querydsl.domain.Member;
+import study.querydsl.repository.MemberRepository;
+
+import javax.sql.DataSource;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+//애플리케이션 설정 그대로(JpaTransactionManager + LazyConnectionDataSourceProxy) readOnly repository 호출이 replica로 가는지 확인
+@SpringBootTest(properties = {
+        "spring.profiles.active=replica",
+        "spring.datasource.url=jdbc:h2:mem:routingprimary;DB_CLOSE_DELAY=-1",
+        "routing.replica.url=jdbc:h2:mem:routingreplica;DB_CLOSE_DELAY=-1",
+        "routing.replica.username=sa"
+})
+class ReplicaRoutingTest {
+
+    @Autowired
+    MemberRepository memberRepository;
+
+    @Autowired
+    TransactionTemplate transactionTemplate;
+
+    @Autowired
+    ReplicaLagMonitor replicaLagMonitor;
+
+    @BeforeEach
+    public void before() {
+        DataSource replica = new DriverManagerDataSource("jdbc:h2:mem:routingreplica;DB_CLOSE_DELAY=-1", "sa", "");
+        new ResourceDatabasePopulator(new ClassPathResource("db/schema.sql")).execute(replica);
+        JdbcTemplate replicaJdbc = new JdbcTemplate(replica);
+        replicaJdbc.update("delete from member");
+        replicaJdbc.update("insert into member (id, username, age) values (1, 'replicaMember', 10)");
+        replicaLagMonitor.check();
+    }
+
+    @Test
+    public void readOnlyRepositoryCallGoesToReplica() {
+        //쓰기 트랜잭션 -> primary에만 저장
+        memberRepository.save(new Member("primaryMember", 20));
+
+        //SimpleJpaRepository의 @Transactional(readOnly = true) -> replica
+        assertThat(memberRepository.findByUsername("replicaMember")).hasSize(1);
+        assertThat(memberRepository.findByUsername("primaryMember")).isEmpty();
+
+        //쓰기 트랜잭션 안의 조회는 primary
+        List<Member> primaryMembers = transactionTemplate.execute(status -> memberRepository.findByUsername("primaryMember"));
+        List<Member> replicaMembers = transactionTemplate.execute(status -> memberRepository.findByUsername("replicaMember"));
+        assertThat(primaryMembers).hasSize(1);
+        assertThat(replicaMembers).isEmpty();
+    }
+}
@@ -0,0 +1,104 @@
+package study.querydsl.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.context.WebApplicationContext;
+import study.querydsl.config.MemberSearchProperties;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+//@AutoConfigureMockMvc를 붙이면 다른 테스트와 컨텍스트가 분리되어 같은 DB에 스키마를 다시 만들게 되므로 직접 생성
+@SpringBootTest
+@Transactional
+class MemberControllerTest {
+
+    @Autowired
+    WebApplicationContext context;
+
+    @Autowired
+    MemberSearchProperties searchProperties;
+
+    MockMvc mockMvc;
+
+    @BeforeEach
+    public void before() {
+        mockMvc = MockMvcBuilders.webAppContextSetup(context).build();
+    }
+
+    @Test
+    public void leanPageJson() throws Exception {
+        mockMvc.perform(get("/v4/members").param("size", "3"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content.length()").value(3))
+                .andExpect(jsonPath("$.size").value(3))
+                .andExpect(jsonPath("$.pageable").doesNotExist());
+    }
+
+    @Test
+    public void leanPageSmile() throws Exception {
+        MvcResult result = mockMvc.perform(get("/v4/members").param("size", "3")
+                        .accept("application/x-jackson-smile"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("application/x-jackson-smile"))
+                .andReturn();
+
+        JsonNode page = new ObjectMapper(new SmileFactory()).readTree(result.getResponse().getContentAsByteArray());
+        assertThat(page.get("content").size()).isEqualTo(3);
+        assertThat(page.get("content").get(0).has("teamName")).isTrue();
+    }
+
+    @Test
+    public void unfilteredListIsRejected() throws Exception {
+        mockMvc.perform(get("/v1/members"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/v1/members").param("ageGoe", "10"))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    public void listOverMaxResultsIsRejected() throws Exception {
+        int maxResults = searchProperties.getMaxResults();
+        try {
+            searchProperties.setMaxResults(1);
+            mockMvc.perform(get("/v1/members").param("ageGoe", "0"))
+                    .andExpect(status().isBadRequest())
+                    .andExpect(jsonPath("$.detail").exists());
+        } finally {
+            searchProperties.setMaxResults(maxResults);
+        }
+    }
+
+    @Test
+    public void pageSizeIsCapped() throws Exception {
+        mockMvc.perform(get("/v4/members").param("size", "100000"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.size").value(1000));
+    }
+
+    @Test
+    public void sortIsLimitedToIndexedKeys() throws Exception {
+        mockMvc.perform(get("/v4/members").param("sort", "teamName"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/v4/members").param("sort", "username").param("sort", "age"))
+                .andExpect(status().isBadRequest());
+
+        MvcResult result = mockMvc.perform(get("/v4/members").param("size", "5").param("sort", "age,desc"))
+                .andExpect(status().isOk())
+                .andReturn();
+        JsonNode content = new ObjectMapper().readTree(result.getResponse().getContentAsString()).get("content");
+        for (int i = 1; i < content.size(); i++) {
+            assertThat(content.get(i - 1).get("age").asInt()).isGreaterThanOrEqualTo(content.get(i).get("age").asInt());
+        }
+    }
+}
@@ -0,0 +1,139 @@
+package study.querydsl.index;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import study.querydsl.condition.MemberSearchCondition;
+import study.querydsl.dto.MemberTeamDto;
+import study.querydsl.repository.MemberSortTranslator;
+import study.querydsl.repository.UnsupportedSortException;
+
+import java.util.List;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
+
+class MemberColumnIndexTest {
+
+    MemberColumnIndex index = new MemberColumnIndex(new MemberSortTranslator());
+
+    //팀 1, 2는 이름이 같다. 회원 1~30, 나이 = id, 팀 = id % 3 + 1, 31번은 팀 없음
+    @BeforeEach
+    public void before() {
+        index.rebuild(
+                () -> Stream.of(
+                        new MemberColumnIndex.TeamRow(1, "teamA"),
+                        new MemberColumnIndex.TeamRow(2, "teamA"),
+                        new MemberColumnIndex.TeamRow(3, "teamB")),
+                () -> Stream.concat(
+                        LongStream.rangeClosed(1, 30).mapToObj(id ->
+                                new MemberColumnIndex.MemberRow(id, "member" + id, (int) id, id % 3 + 1, 0)),
+                        Stream.of(new MemberColumnIndex.MemberRow(31, "member31", 31, null, 0))));
+    }
+
+    @Test
+    public void filtersLikeSearch() {
+        assertThat(index.isReady()).isTrue();
+        assertThat(index.count(new MemberSearchCondition())).isEqualTo(31);
+
+        MemberSearchCondition condition = new MemberSearchCondition();
+        condition.setTeamName("teamA");
+        condition.setAgeGoe(10);
+        condition.setAgeLoe(20);
+        assertThat(index.search(condition, 100))
+                .extracting(MemberTeamDto::getMemberId)
+                .containsExactlyInAnyOrder(10L, 12L, 13L, 15L, 16L, 18L, 19L);
+
+        MemberSearchCondition username = new MemberSearchCondition();
+        username.setUsername("member31");
+        List<MemberTeamDto> result = index.search(username, 100);
+        assertThat(result).hasSize(1);
+        assertThat(result.get(0).getTeamId()).isNull();
+
+        username.setUsername("nobody");
+        assertThat(index.count(username)).isZero();
+    }
+
+    @Test
+    public void searchIsLimited() {
+        assertThat(index.search(new MemberSearchCondition(), 5)).hasSize(5);
+    }
+
+    @Test
+    public void appliesChanges() {
+        index.upsertMember(32, "member32", 100, 3L, 0);
+        index.upsertMember(1, "member1", 50, 3L, 1); //팀, 나이 변경
+        index.removeMember(2);
+        index.upsertTeam(3, "teamC");
+
+        MemberSearchCondition condition = new MemberSearchCondition();
+        condition.setTeamName("teamC");
+        condition.setAgeGoe(50);
+        assertThat(index.search(condition, 100))
+                .extracting(MemberTeamDto::getMemberId)
+                .containsExactlyInAnyOrder(1L, 32L);
+
+        MemberSearchCondition age = new MemberSearchCondition();
+        age.setAgeLoe(2);
+        assertThat(index.count(age)).isZero();
+        assertThat(index.count(new MemberSearchCondition())).isEqualTo(31);
+
+        index.removeTeam(3);
+        condition.setTeamName("teamC");
+        assertThat(index.count(condition)).isZero();
+        MemberSearchCondition member32 = new MemberSearchCondition();
+        member32.setUsername("member32");
+        assertThat(index.search(member32, 1).get(0).getTeamId()).isNull();
+    }
+
+    @Test
+    public void ignoresOutOfOrderChanges() {
+        index.upsertMember(1, "renamed", 70, 1L, 2);
+        index.upsertMember(1, "member1", 60, 1L, 1); //늦게 온 이전 변경
+        index.removeMember(2);
+        index.upsertMember(2, "member2", 80, 1L, 1); //삭제보다 늦게 온 변경
+
+        MemberSearchCondition renamed = new MemberSearchCondition();
+        renamed.setUsername("renamed");
+        assertThat(index.search(renamed, 10))
+                .extracting(MemberTeamDto::getMemberId, MemberTeamDto::getAge)
+                .containsExactly(tuple(1L, 70));
+
+        MemberSearchCondition oldName = new MemberSearchCondition();
+        oldName.setUsername("member1");
+        assertThat(index.count(oldName)).isZero();
+        MemberSearchCondition removed = new MemberSearchCondition();
+        removed.setUsername("member2");
+        assertThat(index.count(removed)).isZero();
+    }
+
+    @Test
+    public void pagesWithTiebreaker() {
+        MemberSearchCondition condition = new MemberSearchCondition();
+        condition.setTeamName("teamA");
+
+        Page<MemberTeamDto> page = index.page(condition, PageRequest.of(1, 3, Sort.by(Sort.Direction.DESC, "age")));
+        assertThat(page.getTotalElements()).isEqualTo(20);
+        assertThat(page.getContent()).extracting(MemberTeamDto::getMemberId).containsExactly(25L, 24L, 22L);
+
+        //같은 팀 안에서는 id 순
+        Page<MemberTeamDto> byTeam = index.page(condition, PageRequest.of(0, 3, Sort.by("teamId")));
+        assertThat(byTeam.getContent()).extracting(MemberTeamDto::getMemberId).containsExactly(3L, 6L, 9L);
+
+        assertThat(index.page(condition, PageRequest.of(10, 3)).getContent()).isEmpty();
+    }
+
+    @Test
+    public void rejectsUnknownSort() {
+        assertThatThrownBy(() -> index.page(new MemberSearchCondition(), PageRequest.of(0, 3, Sort.by("teamName"))))
+                .isInstanceOf(UnsupportedSortException.class);
+        //DB 경로와 같이 key 하나(+ memberId)만
+        assertThatThrownBy(() -> index.page(new MemberSearchCondition(), PageRequest.of(0, 3, Sort.by("age", "username"))))
+                .isInstanceOf(UnsupportedSortException.class);
+    }
+}
@@ -0,0 +1,130 @@
+package study.querydsl.index;
+
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.querydsl.condition.MemberSearchCondition;
+import study.querydsl.domain.Member;
+import study.querydsl.domain.Team;
+import study.querydsl.dto.MemberIngestRow;
+import study.querydsl.dto.MemberTeamDto;
+import study.querydsl.repository.MemberRepository;
+import study.querydsl.repository.MemberSqlRepository;
+import study.querydsl.service.MemberIngestService;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+//공유 DB를 건드리지 않도록 메모리 H2
+@SpringBootTest(properties = {
+        "spring.profiles.active=index",
+        "spring.datasource.url=jdbc:h2:mem:memberindex;DB_CLOSE_DELAY=-1",
+        "member.index.enabled=true"
+})
+class MemberIndexEventListenerTest {
+
+    @Autowired
+    EntityManager em;
+
+    @Autowired
+    TransactionTemplate transactionTemplate;
+
+    @Autowired
+    MemberColumnIndex memberColumnIndex;
+
+    @Autowired
+    MemberRepository memberRepository;
+
+    @Autowired
+    MemberSqlRepository memberSqlRepository;
+
+    @Autowired
+    MemberIngestService memberIngestService;
+
+    @Test
+    public void followsCommittedChanges() {
+        Long[] ids = transactionTemplate.execute(status -> {
+            Team team = new Team("indexTeam");
+            em.persist(team);
+            Member member1 = new Member("indexMember1", 10, team);
+            Member member2 = new Member("indexMember2", 20, team);
+            em.persist(member1);
+            em.persist(member2);
+            return new Long[]{member1.getId(), member2.getId()};
+        });
+        MemberSearchCondition condition = new MemberSearchCondition();
+        condition.setTeamName("indexTeam");
+        assertThat(memberColumnIndex.count(condition)).isEqualTo(2);
+
+        transactionTemplate.executeWithoutResult(status -> {
+            em.find(Member.class, ids[0]).setAge(30);
+            em.remove(em.find(Member.class, ids[1]));
+        });
+        condition.setAgeGoe(30);
+        assertThat(memberColumnIndex.search(condition, 10))
+                .extracting(MemberTeamDto::getUsername)
+                .containsExactly("indexMember1");
+        condition.setAgeGoe(null);
+        assertThat(memberColumnIndex.count(condition)).isEqualTo(1);
+
+        //롤백된 변경은 반영되지 않는다
+        transactionTemplate.executeWithoutResult(status -> {
+            em.find(Member.class, ids[0]).setAge(99);
+            status.setRollbackOnly();
+        });
+        condition.setAgeGoe(99);
+        assertThat(memberColumnIndex.count(condition)).isZero();
+    }
+
+    @Test
+    public void followsIngestedMembers() {
+        memberIngestService.ingest(List.of(
+                new MemberIngestRow("indexIngest1", 30, "indexIngestTeam"),
+                new MemberIngestRow("indexIngest2", 40, "indexIngestTeam")));
+
+        MemberSearchCondition condition = new MemberSearchCondition();
+        condition.setTeamName("indexIngestTeam");
+        assertThat(memberColumnIndex.search(condition, 10))
+                .extracting(MemberTeamDto::getUsername)
+                .containsExactlyInAnyOrder("indexIngest1", "indexIngest2");
+    }
+
+    @Test
+    public void repositoryAnswersFromIndex() {
+        transactionTemplate.executeWithoutResult(status -> {
+            Team team = new Team("indexTeam2");
+            em.persist(team);
+            for (int i = 0; i < 5; i++) {
+                em.persist(new Member("indexTeam2-" + i, i, team));
+            }
+        });
+        MemberSearchCondition condition = new MemberSearchCondition();
+        condition.setTeamName("indexTeam2");
+
+        assertThat(memberRepository.search(condition))
+                .containsExactlyInAnyOrderElementsOf(memberSqlRepository.search(condition));
+        assertThat(memberRepository.searchPageComplex(condition, PageRequest.of(0, 2)).getTotalElements())
+                .isEqualTo(5);
+        assertThat(memberRepository.searchPageSimple(condition, PageRequest.of(1, 2)).getContent())
+                .extracting(MemberTeamDto::getUsername)
+                .containsExactly("indexTeam2-2", "indexTeam2-3");
+
+        //벌크 update는 엔티티 이벤트가 없어서 인덱스가 모른다 → 리포지토리가 DB가 아니라 인덱스에서 답했다면 이전 나이
+        transactionTemplate.executeWithoutResult(status -> em.createQuery(
+                        "update Member m set m.age = m.age + 100 where m.username like 'indexTeam2-%'")
+                .executeUpdate());
+        assertThat(memberSqlRepository.search(condition))
+                .extracting(MemberTeamDto::getAge)
+                .containsExactlyInAnyOrder(100, 101, 102, 103, 104);
+        assertThat(memberRepository.search(condition))
+                .extracting(MemberTeamDto::getAge)
+                .containsExactlyInAnyOrder(0, 1, 2, 3, 4);
+        condition.setAgeGoe(100);
+        assertThat(memberRepository.searchPageComplex(condition, PageRequest.of(0, 2)).getTotalElements())
+                .isZero();
+    }
+}
@@ -0,0 +1,68 @@
+package study.querydsl.limit;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AimdLimiterTest {
+
+    static final long FAST = TimeUnit.MILLISECONDS.toNanos(10);
+    static final long SLOW = TimeUnit.SECONDS.toNanos(1);
+
+    AtomicInteger poolWaiters = new AtomicInteger();
+    AimdLimiter limiter = new AimdLimiter(4, 2, 6, Duration.ofMillis(500), 0.5, poolWaiters::get);
+
+    @Test
+    public void rejectsBeyondLimit() {
+        for (int i = 0; i < 4; i++) {
+            assertThat(limiter.tryAcquire()).isTrue();
+        }
+        assertThat(limiter.tryAcquire()).isFalse();
+
+        limiter.release(FAST, false);
+        assertThat(limiter.tryAcquire()).isTrue();
+    }
+
+    @Test
+    public void slowResponseHalvesLimit() {
+        limiter.tryAcquire();
+        limiter.release(SLOW, false);
+        assertThat(limiter.getLimit()).isEqualTo(2);
+
+        limiter.tryAcquire();
+        limiter.release(SLOW, false);
+        assertThat(limiter.getLimit()).isEqualTo(2); //minLimit 아래로는 내려가지 않는다
+    }
+
+    @Test
+    public void poolQueueShrinksLimitEvenWhenFast() {
+        poolWaiters.set(3);
+        limiter.tryAcquire();
+        limiter.release(FAST, false);
+        assertThat(limiter.getLimit()).isEqualTo(2);
+    }
+
+    @Test
+    public void saturatedFastResponsesGrowLimit() {
+        limiter.tryAcquire();
+        limiter.release(FAST, false);
+        assertThat(limiter.getLimit()).isEqualTo(4); //거의 비어 있을 때는 늘리지 않는다
+
+        for (int round = 0; round < 5; round++) {
+            int limit = limiter.getLimit();
+            for (int i = 0; i < limit; i++) {
+                limiter.tryAcquire();
+            }
+            limiter.release(FAST, false);
+            for (int i = 1; i < limit; i++) {
+                limiter.release(FAST, false);
+            }
+        }
+        assertThat(limiter.getLimit()).isEqualTo(6);
+        assertThat(limiter.getInFlight()).isZero();
+    }
+}
@@ -0,0 +1,39 @@
+package study.querydsl.limit;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SearchAdmissionFilterTest {
+
+    AimdLimiter limiter = new AimdLimiter(2, 1, 2, Duration.ofSeconds(1), 0.5, () -> 0);
+    SearchAdmissionFilter filter = new SearchAdmissionFilter(limiter);
+
+    @Test
+    public void shedsWith429WhenFull() throws Exception {
+        limiter.tryAcquire();
+        limiter.tryAcquire();
+
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        MockFilterChain chain = new MockFilterChain();
+        filter.doFilter(new MockHttpServletRequest("GET", "/v4/members"), response, chain);
+
+        assertThat(response.getStatus()).isEqualTo(429);
+        assertThat(response.getHeader("Retry-After")).isEqualTo("1");
+        assertThat(chain.getRequest()).isNull();
+    }
+
+    @Test
+    public void releasesAfterRequest() throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(new MockHttpServletRequest("GET", "/v4/members"), response, new MockFilterChain());
+
+        assertThat(response.getStatus()).isEqualTo(200);
+        assertThat(limiter.getInFlight()).isZero();
+    }
+}
@@ -0,0 +1,87 @@
+package study.querydsl.performance;
+
+import jakarta.persistence.EntityManager;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.engine.spi.SelfDirtinessTracker;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.querydsl.domain.Member;
+import study.querydsl.service.MemberDataGenerator;
+import study.querydsl.service.MemberIngestService;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 영속성 컨텍스트에 회원 100k건이 올라온 상태에서 flush 시간을 잰다.
+ * enhancement가 없으면 flush마다 모든 엔티티의 스냅샷을 비교하고, 있으면 변경된 엔티티만 본다.
+ * gradle performanceTest --tests '*FlushBenchmarkTest' 를 -PskipEnhance 를 붙여 한 번 더 실행하면 비교할 수 있다.
+ */
+@Slf4j
+@Tag("performance")
+@SpringBootTest(properties = {
+        "spring.profiles.active=performance",
+        "spring.datasource.url=jdbc:h2:mem:flush;DB_CLOSE_DELAY=-1",
+        "member.ingest.batch-size=5000",
+        "decorator.datasource.enabled=false"
+})
+class FlushBenchmarkTest {
+
+    static final int MEMBERS = 100_000;
+    static final int RUNS = 5;
+
+    @Autowired
+    EntityManager em;
+
+    @Autowired
+    TransactionTemplate transactionTemplate;
+
+    @Autowired
+    MemberIngestService memberIngestService;
+
+    @Test
+    public void flushWithManagedMembers() {
+        memberIngestService.ingest(new MemberDataGenerator(100, 42).rows(0, MEMBERS));
+        List<String> report = new ArrayList<>();
+        report.add("enhanced(dirty tracking)=" + SelfDirtinessTracker.class.isAssignableFrom(Member.class));
+
+        transactionTemplate.executeWithoutResult(status -> {
+            List<Member> members = em.createQuery("select m from Member m", Member.class).getResultList();
+            assertThat(members).hasSize(MEMBERS);
+
+            report.add(String.format("no changes     %8.1fms", measure(() -> { })));
+            report.add(String.format("100 changed    %8.1fms", measure(() -> touch(members, 100))));
+            report.add(String.format("10,000 changed %8.1fms", measure(() -> touch(members, 10_000))));
+            status.setRollbackOnly();
+        });
+        log.info("flush with {} managed members\n{}", MEMBERS, String.join("\n", report));
+    }
+
+    //팀/나이를 바꾸면 TeamStatsEventListener의 team_stats update까지 같이 재게 되므로 username만 바꾼다
+    private void touch(List<Member> members, int count) {
+        int step = members.size() / count;
+        for (int i = 0; i < members.size(); i += step) {
+            Member member = members.get(i);
+            member.setUsername(member.getUsername() + "+");
+        }
+    }
+
+    //첫 flush는 워밍업으로 버리고 나머지 평균
+    private double measure(Runnable change) {
+        change.run();
+        em.flush();
+        long elapsed = 0;
+        for (int i = 0; i < RUNS; i++) {
+            change.run();
+            long start = System.nanoTime();
+            em.flush();
+            elapsed += System.nanoTime() - start;
+        }
+        return elapsed / 1_000_000.0 / RUNS;
+    }
+}
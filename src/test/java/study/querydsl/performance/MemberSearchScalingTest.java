@@ -0,0 +1,116 @@
+package study.querydsl.performance;
+
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import study.querydsl.condition.MemberSearchCondition;
+import study.querydsl.dto.MemberTeamDto;
+import study.querydsl.repository.MemberRepository;
+import study.querydsl.service.MemberDataGenerator;
+import study.querydsl.service.MemberIngestService;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 데이터 양에 따라 search / searchPageComplex / count 가 어떻게 늘어나는지 측정한다.
+ * 기본 test 태스크에서는 빠지고 `gradle performanceTest -Pscaling.sizes=10000,100000` 로 실행한다.
+ * 공유 DB를 건드리지 않도록 메모리 H2를 쓰고, 크기마다 이전 단계에 이어서 적재한다.
+ * search는 max-results를 넘으면 거절하므로 가장 큰 단계의 결과도 받을 수 있게 올려 둔다.
+ */
+@Slf4j
+@Tag("performance")
+@SpringBootTest(properties = {
+        "spring.profiles.active=performance",
+        "spring.datasource.url=jdbc:h2:mem:scaling;DB_CLOSE_DELAY=-1",
+        "member.search.query-timeout=10m",
+        "member.search.max-results=1000000",
+        "member.ingest.batch-size=5000",
+        "decorator.datasource.enabled=false"
+})
+class MemberSearchScalingTest {
+
+    static final int TEAMS = 1_000;
+    static final int RUNS = 5;
+
+    @Autowired
+    MemberIngestService memberIngestService;
+
+    @Autowired
+    MemberRepository memberRepository;
+
+    @Test
+    public void searchScaling() {
+        MemberDataGenerator generator = new MemberDataGenerator(TEAMS, 42);
+        Map<String, MemberSearchCondition> conditions = conditions();
+        PageRequest firstPage = PageRequest.of(0, 20);
+        List<String> report = new ArrayList<>();
+
+        long loaded = 0;
+        for (long size : sizes()) {
+            long start = System.nanoTime();
+            loaded += memberIngestService.ingest(generator.rows(loaded, size));
+            report.add(String.format("%,d members (ingest %,dms)", size, millis(start)));
+            assertThat(memberRepository.count()).isEqualTo(size);
+
+            for (Map.Entry<String, MemberSearchCondition> entry : conditions.entrySet()) {
+                MemberSearchCondition condition = entry.getValue();
+                double search = measure(() -> memberRepository.search(condition));
+                double page = measure(() -> memberRepository.searchPageComplex(condition, firstPage));
+                Page<MemberTeamDto> result = memberRepository.searchPageComplex(condition, firstPage);
+                report.add(String.format("  %-12s search %8.1fms  searchPageComplex %8.1fms  total %,d",
+                        entry.getKey(), search, page, result.getTotalElements()));
+            }
+            report.add(String.format("  %-12s %8.1fms", "count()", measure(memberRepository::count)));
+        }
+        log.info("member search scaling\n{}", String.join("\n", report));
+    }
+
+    private Map<String, MemberSearchCondition> conditions() {
+        Map<String, MemberSearchCondition> conditions = new LinkedHashMap<>();
+
+        MemberSearchCondition largestTeam = new MemberSearchCondition();
+        largestTeam.setTeamName(MemberDataGenerator.teamName(0));
+        conditions.put("largestTeam", largestTeam);
+
+        MemberSearchCondition ageRange = new MemberSearchCondition();
+        ageRange.setAgeGoe(30);
+        ageRange.setAgeLoe(40);
+        conditions.put("ageRange", ageRange);
+
+        MemberSearchCondition username = new MemberSearchCondition();
+        username.setUsername("kim0042");
+        conditions.put("username", username);
+        return conditions;
+    }
+
+    //첫 실행은 워밍업으로 버리고 나머지 평균
+    private double measure(Supplier<?> call) {
+        call.get();
+        long start = System.nanoTime();
+        for (int i = 0; i < RUNS; i++) {
+            call.get();
+        }
+        return (System.nanoTime() - start) / 1_000_000.0 / RUNS;
+    }
+
+    private long millis(long startNanos) {
+        return (System.nanoTime() - startNanos) / 1_000_000;
+    }
+
+    private long[] sizes() {
+        return Arrays.stream(System.getProperty("scaling.sizes", "10000,100000,1000000").split(","))
+                .mapToLong(size -> Long.parseLong(size.trim()))
+                .toArray();
+    }
+}
@@ -0,0 +1,99 @@
+package study.querydsl.performance;
+
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import study.querydsl.condition.MemberSearchCondition;
+import study.querydsl.repository.MemberRepository;
+import study.querydsl.repository.MemberSqlRepository;
+import study.querydsl.service.MemberDataGenerator;
+import study.querydsl.service.MemberIngestService;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 같은 검색을 JPA(MemberRepository.search)와 JDBC(MemberSqlRepository.search)로 실행해서 비교한다.
+ * 결과 건수가 많을수록 엔티티 메타데이터/결과 변환 비용 차이가 커진다.
+ * gradle performanceTest --tests '*SearchPathBenchmarkTest'
+ */
+@Slf4j
+@Tag("performance")
+@SpringBootTest(properties = {
+        "spring.profiles.active=performance",
+        "spring.datasource.url=jdbc:h2:mem:searchpath;DB_CLOSE_DELAY=-1",
+        "member.search.query-timeout=10m",
+        "member.search.max-results=10000",
+        "member.ingest.batch-size=5000",
+        "decorator.datasource.enabled=false"
+})
+class SearchPathBenchmarkTest {
+
+    static final int MEMBERS = 100_000;
+    static final int WARMUP = 20;
+    static final int RUNS = 50;
+
+    @Autowired
+    MemberIngestService memberIngestService;
+
+    @Autowired
+    MemberRepository memberRepository;
+
+    @Autowired
+    MemberSqlRepository memberSqlRepository;
+
+    @Test
+    public void jpaVersusJdbc() {
+        memberIngestService.ingest(new MemberDataGenerator(100, 42).rows(0, MEMBERS));
+        List<String> report = new ArrayList<>();
+
+        for (Map.Entry<String, MemberSearchCondition> entry : conditions().entrySet()) {
+            MemberSearchCondition condition = entry.getValue();
+            int rows = memberRepository.search(condition).size();
+            assertThat(memberSqlRepository.search(condition)).hasSize(rows);
+
+            double jpa = measure(() -> memberRepository.search(condition));
+            double jdbc = measure(() -> memberSqlRepository.search(condition));
+            report.add(String.format("  %-12s rows %,6d  jpa %8.3fms  jdbc %8.3fms  (x%.2f)",
+                    entry.getKey(), rows, jpa, jdbc, jpa / jdbc));
+        }
+        log.info("search path, {} members\n{}", MEMBERS, String.join("\n", report));
+    }
+
+    private Map<String, MemberSearchCondition> conditions() {
+        Map<String, MemberSearchCondition> conditions = new LinkedHashMap<>();
+
+        MemberSearchCondition username = new MemberSearchCondition();
+        username.setUsername("kim0042");
+        conditions.put("username", username);
+
+        MemberSearchCondition team = new MemberSearchCondition();
+        team.setTeamName(MemberDataGenerator.teamName(50));
+        conditions.put("team", team);
+
+        MemberSearchCondition ageRange = new MemberSearchCondition();
+        ageRange.setAgeGoe(30);
+        ageRange.setAgeLoe(31);
+        conditions.put("ageRange", ageRange);
+        return conditions;
+    }
+
+    //워밍업(JIT, statement cache)은 버리고 나머지 평균
+    private double measure(Supplier<?> search) {
+        for (int i = 0; i < WARMUP; i++) {
+            search.get();
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < RUNS; i++) {
+            search.get();
+        }
+        return (System.nanoTime() - start) / 1_000_000.0 / RUNS;
+    }
+}
@@ -0,0 +1,47 @@
+package study.querydsl.repository;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class InClauseTest {
+
+    @Test
+    public void padsToPowerOfTwo() {
+        assertThat(InClause.pad(List.of())).isEmpty();
+        assertThat(InClause.pad(List.of(1))).containsExactly(1);
+        assertThat(InClause.pad(List.of(1, 2, 3))).containsExactly(1, 2, 3, 3);
+        assertThat(InClause.pad(List.of(1, 2, 3, 4))).containsExactly(1, 2, 3, 4);
+        assertThat(InClause.pad(range(5))).hasSize(8);
+        assertThat(InClause.pad(range(300))).hasSize(512);
+    }
+
+    @Test
+    public void splitsLargeListsAndMergesResults() {
+        List<Integer> chunkSizes = new ArrayList<>();
+        List<Integer> result = InClause.fetchChunked(range(1200), chunk -> {
+            chunkSizes.add(chunk.size());
+            return chunk;
+        });
+
+        assertThat(chunkSizes).containsExactly(512, 512, 176);
+        assertThat(result).containsExactlyElementsOf(range(1200));
+    }
+
+    @Test
+    public void removesDuplicatesBeforeChunking() {
+        List<Integer> values = new ArrayList<>(range(3));
+        values.addAll(range(3));
+
+        assertThat(InClause.fetchChunked(values, chunk -> chunk)).containsExactly(0, 1, 2);
+        assertThat(InClause.fetchChunked(List.of(), chunk -> chunk)).isEmpty();
+    }
+
+    private List<Integer> range(int size) {
+        return IntStream.range(0, size).boxed().toList();
+    }
+}
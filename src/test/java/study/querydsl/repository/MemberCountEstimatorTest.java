@@ -0,0 +1,98 @@
+package study.querydsl.repository;
+
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.querydsl.condition.MemberSearchCondition;
+import study.querydsl.domain.Member;
+import study.querydsl.domain.Team;
+import study.querydsl.dto.ApproximatePage;
+import study.querydsl.dto.MemberTeamDto;
+import study.querydsl.dto.PageResponse;
+import study.querydsl.service.MemberDataGenerator;
+import study.querydsl.service.MemberIngestService;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+//추정 모드를 켠 설정이라 공유 DB 대신 메모리 H2
+@SpringBootTest(properties = {
+        "spring.profiles.active=estimate",
+        "spring.datasource.url=jdbc:h2:mem:estimate;DB_CLOSE_DELAY=-1",
+        "member.search.estimated-total.enabled=true",
+        "member.search.estimated-total.exact-below=5"
+})
+class MemberCountEstimatorTest {
+
+    @Autowired
+    EntityManager em;
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    TransactionTemplate transactionTemplate;
+
+    @Autowired
+    MemberIngestService memberIngestService;
+
+    @Autowired
+    MemberCountEstimator memberCountEstimator;
+
+    @Autowired
+    MemberRepository memberRepository;
+
+    @BeforeEach
+    public void before() {
+        if (jdbcTemplate.queryForObject("select count(*) from member", Long.class) == 0) {
+            memberIngestService.ingest(new MemberDataGenerator(4, 42).rows(0, 200));
+            transactionTemplate.executeWithoutResult(status -> {
+                Team tiny = new Team("tiny");
+                em.persist(tiny);
+                em.persist(new Member("tiny1", 10, tiny));
+                em.persist(new Member("tiny2", 20, tiny));
+            });
+        }
+    }
+
+    @Test
+    public void estimatesFromStatistics() {
+        assertThat(memberCountEstimator.estimate(new MemberSearchCondition()))
+                .hasValue(jdbcTemplate.queryForObject("select count(*) from member", Long.class));
+
+        MemberSearchCondition team = new MemberSearchCondition();
+        team.setTeamName(MemberDataGenerator.teamName(0));
+        assertThat(memberCountEstimator.estimate(team)).hasValue(jdbcTemplate.queryForObject(
+                "select count(*) from member m join team t on t.id = m.team_id where t.name = ?",
+                Long.class, MemberDataGenerator.teamName(0)));
+
+        team.setAgeGoe(30);
+        assertThat(memberCountEstimator.estimate(team)).isEmpty();
+    }
+
+    @Test
+    public void pageTotalIsMarkedApproximate() {
+        Page<MemberTeamDto> page = memberRepository.searchPageComplex(new MemberSearchCondition(), PageRequest.of(0, 10));
+        assertThat(page).isInstanceOf(ApproximatePage.class);
+        assertThat(page.getTotalElements()).isEqualTo(202);
+        assertThat(PageResponse.of(page).isTotalApproximate()).isTrue();
+
+        //추정치가 exact-below 미만이면 정확한 count
+        MemberSearchCondition tiny = new MemberSearchCondition();
+        tiny.setTeamName("tiny");
+        Page<MemberTeamDto> small = memberRepository.searchPageComplex(tiny, PageRequest.of(0, 1));
+        assertThat(small).isNotInstanceOf(ApproximatePage.class);
+        assertThat(small.getTotalElements()).isEqualTo(2);
+        assertThat(PageResponse.of(small).isTotalApproximate()).isFalse();
+
+        //조건으로 추정할 수 없으면 정확한 count
+        MemberSearchCondition age = new MemberSearchCondition();
+        age.setAgeGoe(0);
+        assertThat(memberRepository.searchPageComplex(age, PageRequest.of(0, 10))).isNotInstanceOf(ApproximatePage.class);
+    }
+}
@@ -5,15 +5,19 @@ import org.assertj.core.api.Assertions;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 import study.querydsl.condition.MemberSearchCondition;
 import study.querydsl.domain.Member;
 import study.querydsl.domain.Team;
 import study.querydsl.dto.MemberTeamDto;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
 
 @SpringBootTest
@@ -114,6 +118,79 @@ class MemberJpaRepositoryTest {
         assertThat(result).extracting("username").containsExactly("member3","member4");
     }
 
-    
+    @Test
+    public void findIdsAfterTest() {
+        Team teamA = new Team("teamA");
+        em.persist(teamA);
+        for (int i = 0; i < 5; i++) {
+            memberJpaRepository.save(new Member("member" + i, i, teamA));
+        }
+
+        List<Long> first = memberJpaRepository.findIdsAfter(null, 3);
+        List<Long> next = memberJpaRepository.findIdsAfter(first.get(2), 3);
+
+        assertThat(first).hasSize(3).isSorted();
+        assertThat(next).isNotEmpty().allMatch(id -> id > first.get(2));
+    }
+
+    @Test
+    public void findAllByIdsTest() {
+        Member member1 = new Member("multi1", 10);
+        Member member2 = new Member("multi2", 20);
+        Member member3 = new Member("multi3", 30);
+        memberJpaRepository.save(member1);
+        memberJpaRepository.save(member2);
+        memberJpaRepository.save(member3);
+        em.flush();
+        em.clear();
+
+        Member cached = memberJpaRepository.findById(member2.getId()).get();
+        List<Member> result = memberJpaRepository.findAllByIds(
+                List.of(member3.getId(), member2.getId(), -1L, member1.getId(), member3.getId()));
+
+        //요청한 순서, 중복/없는 id 제외
+        assertThat(result).extracting(Member::getUsername).containsExactly("multi3", "multi2", "multi1");
+        //이미 영속성 컨텍스트에 있던 회원은 같은 인스턴스
+        assertThat(result.get(1)).isSameAs(cached);
+        assertThat(memberJpaRepository.findAllByIds(List.of())).isEmpty();
+    }
 
-}
\ No newline at end of file
+    @Test
+    public void findByUsernamesTest() {
+        for (int i = 0; i < 3; i++) {
+            memberJpaRepository.save(new Member("inMember" + i, i));
+        }
+
+        List<String> usernames = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            usernames.add("inMember" + i);
+        }
+
+        assertThat(memberJpaRepository.findByUsernames(usernames))
+                .extracting(Member::getUsername)
+                .containsExactlyInAnyOrder("inMember0", "inMember1", "inMember2");
+    }
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED) //chunk마다 별도 트랜잭션으로 커밋된 데이터를 읽어야 함
+    public void processInChunksTest() {
+        long total = memberJpaRepository.findAll().size();
+        AtomicLong visited = new AtomicLong();
+
+        long processed = memberJpaRepository.processInChunks(7, 3, chunk -> {
+            assertThat(chunk.size()).isLessThanOrEqualTo(7);
+            visited.addAndGet(chunk.size());
+        });
+
+        assertThat(processed).isEqualTo(total);
+        assertThat(visited.get()).isEqualTo(total);
+    }
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void processInChunksRethrowsError() {
+        assertThatThrownBy(() -> memberJpaRepository.processInChunks(7, 3, chunk -> {
+            throw new AssertionError("chunk failed");
+        })).isInstanceOf(AssertionError.class).hasMessage("chunk failed");
+    }
+}
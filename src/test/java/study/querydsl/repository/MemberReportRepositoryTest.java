@@ -0,0 +1,75 @@
+package study.querydsl.repository;
+
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+import study.querydsl.domain.Member;
+import study.querydsl.domain.Team;
+import study.querydsl.dto.MemberTeamDto;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+@SpringBootTest
+@Transactional
+class MemberReportRepositoryTest {
+    @Autowired
+    EntityManager em;
+
+    @Autowired
+    MemberReportRepository memberReportRepository;
+
+    @Test
+    public void oldestMembers() {
+        Team team = new Team("reportTeam");
+        em.persist(team);
+        em.persist(new Member("oldest1", 1000, team));
+        em.persist(new Member("oldest2", 1000));
+        em.persist(new Member("younger", 999, team));
+
+        assertThat(memberReportRepository.findOldestMembers())
+                .extracting(MemberTeamDto::getUsername, MemberTeamDto::getTeamName)
+                .containsExactly(tuple("oldest1", "reportTeam"),
+                        tuple("oldest2", null));
+    }
+
+    @Test
+    public void membersAboveAverageAge() {
+        em.persist(new Member("aboveAverage", 1000));
+        em.flush();
+
+        List<Member> all = em.createQuery("select m from Member m", Member.class).getResultList();
+        double average = all.stream().mapToInt(Member::getAge).average().orElseThrow();
+        long expected = all.stream().filter(m -> m.getAge() > average).count();
+
+        List<MemberTeamDto> result = memberReportRepository.findMembersAboveAverageAge();
+
+        assertThat(result).hasSize((int) expected)
+                .allMatch(dto -> dto.getAge() > average);
+        assertThat(result.get(0).getUsername()).isEqualTo("aboveAverage");
+    }
+
+    @Test
+    public void topMembersPerTeam() {
+        Team teamA = new Team("reportTeamA");
+        Team teamB = new Team("reportTeamB");
+        em.persist(teamA);
+        em.persist(teamB);
+        em.persist(new Member("a1", 10, teamA));
+        em.persist(new Member("a2", 30, teamA));
+        em.persist(new Member("a3", 30, teamA));
+        em.persist(new Member("a4", 20, teamA));
+        em.persist(new Member("b1", 5, teamB));
+
+        List<MemberTeamDto> result = memberReportRepository.findTopMembersPerTeam(2).stream()
+                .filter(dto -> dto.getTeamName().startsWith("reportTeam"))
+                .toList();
+
+        assertThat(result).extracting(MemberTeamDto::getUsername)
+                .containsExactly("a2", "a3", "b1");
+    }
+}
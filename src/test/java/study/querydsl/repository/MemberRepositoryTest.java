@@ -7,8 +7,10 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 import study.querydsl.condition.MemberSearchCondition;
+import study.querydsl.config.MemberSearchProperties;
 import study.querydsl.domain.Member;
 import study.querydsl.domain.Team;
 import study.querydsl.dto.MemberTeamDto;
@@ -16,6 +18,7 @@ import study.querydsl.dto.MemberTeamDto;
 import java.util.List;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static study.querydsl.domain.QMember.member;
 
 @SpringBootTest
@@ -27,6 +30,9 @@ class MemberRepositoryTest {
     @Autowired
     MemberRepository memberRepository;
 
+    @Autowired
+    MemberSearchProperties searchProperties;
+
     @Test
     public void basicTest() {
         Member member1 = new Member("member1", 10);
@@ -73,6 +79,66 @@ class MemberRepositoryTest {
         }
     }
 
+    @Test
+    public void searchOverMaxResultsIsRejected() {
+        for (int i = 0; i < 3; i++) {
+            em.persist(new Member("overflow", i));
+        }
+        MemberSearchCondition condition = new MemberSearchCondition();
+        condition.setUsername("overflow");
+
+        int maxResults = searchProperties.getMaxResults();
+        try {
+            searchProperties.setMaxResults(3);
+            assertThat(memberRepository.search(condition)).hasSize(3);
+
+            //앞의 2건만 잘라서 주지 않는다
+            searchProperties.setMaxResults(2);
+            assertThatThrownBy(() -> memberRepository.search(condition))
+                    .isInstanceOf(SearchResultTooLargeException.class);
+        } finally {
+            searchProperties.setMaxResults(maxResults);
+        }
+    }
+
+    @Test
+    public void searchResultsAreReadOnly() {
+        em.persist(new Member("shared", 10));
+        MemberSearchCondition condition = new MemberSearchCondition();
+        condition.setUsername("shared");
+
+        //동시에 들어온 같은 검색은 결과 객체를 같이 받으므로 한 호출자가 고칠 수 없어야 한다
+        List<MemberTeamDto> result = memberRepository.search(condition);
+        Page<MemberTeamDto> page = memberRepository.searchPageComplex(condition, PageRequest.of(0, 10));
+
+        assertThatThrownBy(() -> result.clear()).isInstanceOf(UnsupportedOperationException.class);
+        assertThatThrownBy(() -> page.getContent().clear()).isInstanceOf(UnsupportedOperationException.class);
+    }
+
+    @Test
+    public void searchPageComplexTeamFilterTest() {
+        //이름이 같은 팀이 여러 개여도 모두 포함, 팀이 없는 회원은 제외
+        Team teamA = new Team("sameName");
+        Team teamB = new Team("sameName");
+        Team teamC = new Team("otherName");
+        em.persist(teamA);
+        em.persist(teamB);
+        em.persist(teamC);
+        em.persist(new Member("member1", 10, teamA));
+        em.persist(new Member("member2", 20, teamB));
+        em.persist(new Member("member3", 30, teamB));
+        em.persist(new Member("member4", 40, teamC));
+        em.persist(new Member("member5", 50));
+
+        MemberSearchCondition condition = new MemberSearchCondition();
+        condition.setTeamName("sameName");
+
+        Page<MemberTeamDto> result = memberRepository.searchPageComplex(condition, PageRequest.of(0, 1));
+
+        assertThat(result.getContent()).extracting("username").containsExactly("member1");
+        assertThat(result.getTotalElements()).isEqualTo(3);
+    }
+
     @Test
     public void searchPageSimpleTest() throws Exception {
         // given
@@ -109,4 +175,18 @@ class MemberRepositoryTest {
         }
 
     }
-}
\ No newline at end of file
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED) //비동기 검색은 다른 스레드의 트랜잭션에서 실행됨
+    public void searchAsyncTest() throws Exception {
+        MemberSearchCondition condition = new MemberSearchCondition();
+        condition.setAgeGoe(10);
+        condition.setAgeLoe(40);
+
+        List<MemberTeamDto> result = memberRepository.searchAsync(condition).get();
+        Page<MemberTeamDto> page = memberRepository.searchPageComplexAsync(condition, PageRequest.of(0, 3)).get();
+
+        assertThat(result).isEqualTo(memberRepository.search(condition));
+        assertThat(page.getTotalElements()).isEqualTo(result.size());
+    }
+}
@@ -0,0 +1,58 @@
+package study.querydsl.repository;
+
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+import study.querydsl.condition.MemberSearchCondition;
+import study.querydsl.domain.Member;
+import study.querydsl.domain.Team;
+import study.querydsl.dto.MemberTeamDto;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@Transactional
+class MemberSqlRepositoryTest {
+    @Autowired
+    EntityManager em;
+
+    @Autowired
+    MemberSqlRepository memberSqlRepository;
+
+    @Autowired
+    MemberRepository memberRepository;
+
+    @Test
+    public void searchMatchesJpa() {
+        Team teamA = new Team("sqlTeamA");
+        em.persist(teamA);
+        em.persist(new Member("sqlMember1", 35, teamA));
+        em.persist(new Member("sqlMember2", 36, teamA));
+        em.persist(new Member("sqlMember3", 37));
+        em.flush();
+
+        MemberSearchCondition byTeam = new MemberSearchCondition();
+        byTeam.setTeamName("sqlTeamA");
+        byTeam.setAgeGoe(36);
+
+        MemberSearchCondition byAge = new MemberSearchCondition();
+        byAge.setAgeGoe(30);
+        byAge.setAgeLoe(40);
+
+        MemberSearchCondition byUsername = new MemberSearchCondition();
+        byUsername.setUsername("sqlMember3");
+
+        for (MemberSearchCondition condition : List.of(byTeam, byAge, byUsername)) {
+            assertThat(memberSqlRepository.search(condition))
+                    .containsExactlyInAnyOrderElementsOf(memberRepository.search(condition));
+        }
+
+        List<MemberTeamDto> result = memberSqlRepository.search(byUsername);
+        assertThat(result).extracting(MemberTeamDto::getUsername).containsExactly("sqlMember3");
+        assertThat(result.get(0).getTeamId()).isNull();
+    }
+}
@@ -0,0 +1,50 @@
+package study.querydsl.repository;
+
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+import study.querydsl.condition.MemberSearchCondition;
+import study.querydsl.domain.Member;
+import study.querydsl.domain.Team;
+import study.querydsl.dto.MemberColumns;
+import study.querydsl.dto.TeamAgeStats;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+@SpringBootTest
+@Transactional
+class MemberTestRepositoryTest {
+    @Autowired
+    EntityManager em;
+
+    @Autowired
+    MemberTestRepository memberTestRepository;
+
+    @Test
+    public void fetchColumns() {
+        Team teamA = new Team("columnTeamA");
+        Team teamB = new Team("columnTeamB");
+        em.persist(teamA);
+        em.persist(teamB);
+
+        em.persist(new Member("member1", 10, teamA));
+        em.persist(new Member("member2", 20, teamA));
+        em.persist(new Member("member3", 30, teamB));
+        em.persist(new Member("member4", 40, teamB));
+
+        MemberSearchCondition condition = new MemberSearchCondition();
+        condition.setTeamName("columnTeamA");
+        MemberColumns columns = memberTestRepository.fetchColumns(condition);
+
+        assertThat(columns.size()).isEqualTo(2);
+        assertThat(columns.teamName(0)).isEqualTo("columnTeamA");
+
+        assertThat(columns.teamAgeStats())
+                .extracting(TeamAgeStats::getTeamName, TeamAgeStats::getCount, TeamAgeStats::getSum,
+                        TeamAgeStats::getMin, TeamAgeStats::getMax, TeamAgeStats::getAvg)
+                .containsExactly(tuple("columnTeamA", 2L, 30L, 10, 20, 15.0));
+    }
+}
@@ -0,0 +1,157 @@
+package study.querydsl.repository;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SingleFlightTest {
+
+    SingleFlight<String, Integer> singleFlight = new SingleFlight<>();
+
+    @Test
+    public void concurrentCallsShareOneExecution() throws Exception {
+        AtomicInteger executions = new AtomicInteger();
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+
+        Future<Integer> leader = executor.submit(() -> singleFlight.execute("key", () -> {
+            started.countDown();
+            await(release);
+            return executions.incrementAndGet();
+        }));
+        started.await();
+
+        List<Future<Integer>> followers = new ArrayList<>();
+        for (int i = 0; i < 7; i++) {
+            followers.add(executor.submit(() -> singleFlight.execute("key", executions::incrementAndGet)));
+        }
+        Thread.sleep(100); //follower들이 leader 결과를 기다리기 시작할 시간
+        release.countDown();
+
+        assertThat(leader.get()).isEqualTo(1);
+        for (Future<Integer> follower : followers) {
+            assertThat(follower.get()).isEqualTo(1);
+        }
+        assertThat(executions.get()).isEqualTo(1);
+
+        //끝난 뒤의 호출은 다시 실행
+        assertThat(singleFlight.execute("key", executions::incrementAndGet)).isEqualTo(2);
+        executor.shutdown();
+        executor.awaitTermination(1, TimeUnit.SECONDS);
+    }
+
+    @Test
+    public void failureIsSharedAndNotCached() {
+        assertThatThrownBy(() -> singleFlight.execute("key", () -> {
+            throw new IllegalStateException("boom");
+        })).isInstanceOf(IllegalStateException.class);
+
+        assertThat(singleFlight.execute("key", () -> 1)).isEqualTo(1);
+    }
+
+    @Test
+    public void cancellingOneCallerDoesNotCancelSharedExecution() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicBoolean interrupted = new AtomicBoolean();
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+
+        CompletableFuture<Integer> first = singleFlight.submit("key", () -> {
+            started.countDown();
+            interrupted.set(!awaitInterruptibly(release));
+            return 1;
+        }, executor);
+        CompletableFuture<Integer> second = singleFlight.submit("key", () -> 2, executor);
+        started.await();
+
+        first.cancel(true);
+        release.countDown();
+
+        assertThat(second.get(1, TimeUnit.SECONDS)).isEqualTo(1);
+        assertThat(first).isCancelled();
+        assertThat(interrupted).isFalse();
+        executor.shutdown();
+    }
+
+    @Test
+    public void lastCallerLeavingCancelsExecution() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch interrupted = new CountDownLatch(1);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+
+        CompletableFuture<Integer> first = singleFlight.submit("key", () -> {
+            started.countDown();
+            if (!awaitInterruptibly(new CountDownLatch(1))) {
+                interrupted.countDown();
+            }
+            return 1;
+        }, executor);
+        CompletableFuture<Integer> second = singleFlight.submit("key", () -> 2, executor)
+                .orTimeout(50, TimeUnit.MILLISECONDS);
+        started.await();
+
+        first.cancel(true);
+        assertThatThrownBy(second::join).hasCauseInstanceOf(TimeoutException.class);
+        assertThat(interrupted.await(1, TimeUnit.SECONDS)).isTrue();
+
+        //취소된 실행은 공유하지 않고 새로 실행
+        assertThat(singleFlight.submit("key", () -> 3, executor).get(1, TimeUnit.SECONDS)).isEqualTo(3);
+        executor.shutdown();
+    }
+
+    @Test
+    public void interruptedFollowerLeavesWithoutFailingLeader() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+
+        Future<Integer> leader = executor.submit(() -> singleFlight.execute("key", () -> {
+            started.countDown();
+            await(release);
+            return 1;
+        }));
+        started.await();
+        Future<Integer> follower = executor.submit(() -> singleFlight.execute("key", () -> 2));
+        Thread.sleep(100); //follower가 leader 결과를 기다리기 시작할 시간
+
+        follower.cancel(true);
+        //follower 스레드가 풀려나야 다음 작업이 실행된다
+        assertThat(executor.submit(() -> 3).get(1, TimeUnit.SECONDS)).isEqualTo(3);
+        release.countDown();
+
+        assertThat(leader.get(1, TimeUnit.SECONDS)).isEqualTo(1);
+        executor.shutdown();
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    //interrupt 되면 false
+    private static boolean awaitInterruptibly(CountDownLatch latch) {
+        try {
+            latch.await();
+            return true;
+        } catch (InterruptedException e) {
+            return false;
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package study.querydsl.repository;
+
+import com.querydsl.core.types.OrderSpecifier;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static study.querydsl.domain.QMember.member;
+
+class SortTranslatorTest {
+
+    SortTranslator sortTranslator = new MemberSortTranslator();
+
+    @Test
+    public void unsortedOrdersById() {
+        assertThat(sortTranslator.translate(Sort.unsorted()))
+                .containsExactly(member.id.asc());
+    }
+
+    @Test
+    public void tiebreakerFollowsDirection() {
+        OrderSpecifier<?>[] orders = sortTranslator.translate(Sort.by(Sort.Order.desc("age")));
+
+        assertThat(orders).containsExactly(member.age.desc(), member.id.desc());
+    }
+
+    @Test
+    public void explicitTiebreakerInSameDirection() {
+        assertThat(sortTranslator.translate(Sort.by(Sort.Order.desc("age"), Sort.Order.desc("memberId"))))
+                .containsExactly(member.age.desc(), member.id.desc());
+    }
+
+    @Test
+    public void shapesWithoutIndexAreRejected() {
+        //(username, id) / (age, id) 인덱스로는 둘 다 처리할 수 없다
+        assertThatThrownBy(() -> sortTranslator.translate(Sort.by("username", "age")))
+                .isInstanceOf(UnsupportedSortException.class)
+                .hasMessageContaining("memberId");
+        assertThatThrownBy(() -> sortTranslator.translate(Sort.by(Sort.Order.asc("age"), Sort.Order.desc("teamId"))))
+                .isInstanceOf(UnsupportedSortException.class);
+        assertThatThrownBy(() -> sortTranslator.translate(Sort.by(Sort.Order.asc("age"), Sort.Order.desc("memberId"))))
+                .isInstanceOf(UnsupportedSortException.class);
+        assertThatThrownBy(() -> sortTranslator.translate(Sort.by("age", "memberId", "username")))
+                .isInstanceOf(UnsupportedSortException.class);
+
+        assertThat(sortTranslator.metrics()).containsEntry("rejected", 4L);
+    }
+
+    @Test
+    public void explicitIdIsNotDuplicated() {
+        assertThat(sortTranslator.translate(Sort.by(Sort.Order.desc("memberId"))))
+                .containsExactly(member.id.desc());
+    }
+
+    @Test
+    public void unindexedOrJoinedKeysAreRejected() {
+        assertThatThrownBy(() -> sortTranslator.translate(Sort.by("teamName")))
+                .isInstanceOf(UnsupportedSortException.class)
+                .hasMessageContaining("teamName")
+                .hasMessageContaining("memberId, username, age, teamId");
+        assertThatThrownBy(() -> sortTranslator.translate(Sort.by("team.members")))
+                .isInstanceOf(UnsupportedSortException.class);
+
+        assertThat(sortTranslator.metrics()).containsEntry("rejected", 2L);
+    }
+
+    @Test
+    public void metrics() {
+        sortTranslator.translate(PageRequest.of(0, 10, Sort.by("age")));
+        sortTranslator.translate(PageRequest.of(0, 10, Sort.by("age", "memberId")));
+        sortTranslator.translate(PageRequest.of(0, 10, Sort.by("username")));
+        sortTranslator.translate(PageRequest.of(2000, 10));
+
+        assertThat(sortTranslator.metrics())
+                .containsEntry("sorts.age", 2L)
+                .containsEntry("sorts.username", 1L)
+                .containsEntry("sorts.memberId", 0L)
+                .containsEntry("deepOffset", 1L);
+    }
+}
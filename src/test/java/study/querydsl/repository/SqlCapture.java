@@ -0,0 +1,40 @@
+package study.querydsl.repository;
+
+import com.p6spy.engine.common.StatementInformation;
+import com.p6spy.engine.event.SimpleJdbcEventListener;
+import org.springframework.boot.test.context.TestComponent;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * p6spy 리스너로 start() ~ stop() 사이에 현재 스레드에서 실행된 SQL을 모은다.
+ * datasource-decorator가 컨텍스트의 JdbcEventListener 빈을 자동으로 등록한다.
+ */
+@TestComponent
+public class SqlCapture extends SimpleJdbcEventListener {
+
+    private final ThreadLocal<List<Statement>> captured = new ThreadLocal<>();
+
+    public record Statement(String sql, String sqlWithValues) {
+    }
+
+    public void start() {
+        captured.set(new ArrayList<>());
+    }
+
+    public List<Statement> stop() {
+        List<Statement> statements = captured.get();
+        captured.remove();
+        return statements;
+    }
+
+    @Override
+    public void onAfterAnyExecute(StatementInformation statementInformation, long timeElapsedNanos, SQLException e) {
+        List<Statement> statements = captured.get();
+        if (statements != null) {
+            statements.add(new Statement(statementInformation.getSql(), statementInformation.getSqlWithValues()));
+        }
+    }
+}
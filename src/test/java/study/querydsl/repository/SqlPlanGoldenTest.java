@@ -0,0 +1,173 @@
+package study.querydsl.repository;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import study.querydsl.condition.MemberSearchCondition;
+import study.querydsl.service.MemberDataGenerator;
+import study.querydsl.service.MemberIngestService;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Locale;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * repository 메서드가 실행하는 SQL과 H2 EXPLAIN 결과를 src/test/resources/sql-plans 의 golden 파일과 비교한다.
+ * Querydsl/Hibernate 업그레이드나 쿼리 수정으로 join이 늘거나 인덱스 대신 tableScan이 되면 여기서 깨진다.
+ * 의도한 변경이면 -Psql.plans.update=true 로 실행해서 golden을 다시 쓰고 diff를 리뷰한 뒤 커밋한다.
+ */
+@SpringBootTest(properties = {
+        "spring.profiles.active=sqlplan",
+        "spring.datasource.url=jdbc:h2:mem:sqlplan;DB_CLOSE_DELAY=-1"
+})
+@Import(SqlCapture.class)
+class SqlPlanGoldenTest {
+
+    static final Path GOLDEN_DIR = Path.of("src/test/resources/sql-plans");
+    static final boolean UPDATE = Boolean.getBoolean("sql.plans.update");
+
+    @Autowired
+    SqlCapture sqlCapture;
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    MemberIngestService memberIngestService;
+
+    @Autowired
+    MemberRepository memberRepository;
+
+    @Autowired
+    MemberJpaRepository memberJpaRepository;
+
+    @Autowired
+    MemberTestRepository memberTestRepository;
+
+    @Autowired
+    TeamQueryRepository teamQueryRepository;
+
+    @Autowired
+    MemberReportRepository memberReportRepository;
+
+    @Autowired
+    MemberSqlRepository memberSqlRepository;
+
+    //plan이 통계에 따라 바뀌지 않도록 항상 같은 데이터
+    @BeforeEach
+    public void before() {
+        if (jdbcTemplate.queryForObject("select count(*) from member", Long.class) == 0) {
+            memberIngestService.ingest(new MemberDataGenerator(20, 42).rows(0, 2000));
+            jdbcTemplate.execute("analyze");
+        }
+    }
+
+    @Test
+    public void memberRepositoryImpl() {
+        assertGolden("MemberRepositoryImpl.search", () -> memberRepository.search(condition()));
+        assertGolden("MemberRepositoryImpl.searchPageSimple",
+                () -> memberRepository.searchPageSimple(condition(), PageRequest.of(0, 3)));
+        assertGolden("MemberRepositoryImpl.searchPageComplex",
+                () -> memberRepository.searchPageComplex(condition(), PageRequest.of(0, 3)));
+        assertGolden("MemberSqlRepository.search", () -> memberSqlRepository.search(condition()));
+        assertGolden("MemberRepository.findByUsername", () -> memberRepository.findByUsername("kim0042"));
+    }
+
+    @Test
+    public void memberJpaRepository() {
+        assertGolden("MemberJpaRepository.search", () -> memberJpaRepository.search(condition()));
+        assertGolden("MemberJpaRepository.searchByBuilder", () -> memberJpaRepository.searchByBuilder(condition()));
+        assertGolden("MemberJpaRepository.findByUsername_Querydsl",
+                () -> memberJpaRepository.findByUsername_Querydsl("kim0042"));
+        assertGolden("MemberJpaRepository.findIdsAfter", () -> memberJpaRepository.findIdsAfter(100L, 10));
+        assertGolden("MemberJpaRepository.searchMember", () -> memberJpaRepository.searchMember(condition()));
+        assertGolden("MemberJpaRepository.findAllByIds",
+                () -> memberJpaRepository.findAllByIds(List.of(110L, 100L, 105L)));
+        assertGolden("MemberJpaRepository.findByUsernames",
+                () -> memberJpaRepository.findByUsernames(List.of("kim0042", "lee0042", "park0042")));
+    }
+
+    @Test
+    public void memberTestRepository() {
+        assertGolden("MemberTestRepository.applyPagination",
+                () -> memberTestRepository.applyPagination(condition(), PageRequest.of(0, 3)));
+        assertGolden("MemberTestRepository.applyPagination2",
+                () -> memberTestRepository.applyPagination2(condition(), PageRequest.of(0, 3)));
+        assertGolden("MemberTestRepository.fetchColumns", () -> memberTestRepository.fetchColumns(condition()));
+    }
+
+    @Test
+    public void teamQueryRepository() {
+        assertGolden("TeamQueryRepository.findWithMembers",
+                () -> teamQueryRepository.findWithMembers("kim0042", PageRequest.of(0, 3)));
+        assertGolden("TeamQueryRepository.findTeamsWithMembers",
+                () -> teamQueryRepository.findTeamsWithMembers(PageRequest.of(0, 3)));
+    }
+
+    @Test
+    public void memberReportRepository() {
+        assertGolden("MemberReportRepository.findOldestMembers", () -> memberReportRepository.findOldestMembers());
+        assertGolden("MemberReportRepository.findMembersAboveAverageAge",
+                () -> memberReportRepository.findMembersAboveAverageAge());
+        assertGolden("MemberReportRepository.findTopMembersPerTeam",
+                () -> memberReportRepository.findTopMembersPerTeam(3));
+    }
+
+    private MemberSearchCondition condition() {
+        MemberSearchCondition condition = new MemberSearchCondition();
+        condition.setTeamName(MemberDataGenerator.teamName(3));
+        condition.setAgeGoe(30);
+        condition.setAgeLoe(40);
+        return condition;
+    }
+
+    private void assertGolden(String name, Runnable call) {
+        sqlCapture.start();
+        try {
+            call.run();
+        } finally {
+            List<SqlCapture.Statement> statements = sqlCapture.stop();
+            compare(name, render(statements));
+        }
+    }
+
+    private String render(List<SqlCapture.Statement> statements) {
+        StringBuilder text = new StringBuilder();
+        for (SqlCapture.Statement statement : statements) {
+            text.append(statement.sql()).append('\n');
+            if (statement.sql().toLowerCase(Locale.ROOT).startsWith("select")) {
+                String plan = jdbcTemplate.queryForObject("explain " + statement.sqlWithValues(), String.class);
+                //PRIMARY_KEY_8, FK..._INDEX_8 같은 자동 생성 인덱스 번호는 테이블 생성 순서에 따라 바뀌므로 지운다
+                plan.replaceAll("PRIMARY_KEY_[0-9A-F]+", "PRIMARY_KEY")
+                        .replaceAll("_INDEX_[0-9A-F]+", "_INDEX")
+                        .lines()
+                        .forEach(line -> text.append("    ").append(line).append('\n'));
+            }
+            text.append('\n');
+        }
+        return text.toString();
+    }
+
+    private void compare(String name, String actual) {
+        Path golden = GOLDEN_DIR.resolve(name + ".sql");
+        try {
+            if (UPDATE || Files.notExists(golden)) {
+                Files.createDirectories(GOLDEN_DIR);
+                Files.writeString(golden, actual);
+                assertThat(UPDATE).as("golden 파일이 없어서 새로 만들었습니다. 내용을 확인하고 커밋하세요: " + golden).isTrue();
+                return;
+            }
+            assertThat(actual).as("SQL/plan이 바뀌었습니다: " + golden).isEqualTo(Files.readString(golden));
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
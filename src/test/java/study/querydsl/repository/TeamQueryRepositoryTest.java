@@ -0,0 +1,100 @@
+package study.querydsl.repository;
+
+import jakarta.persistence.EntityManager;
+import org.hibernate.Hibernate;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.transaction.annotation.Transactional;
+import study.querydsl.domain.Member;
+import study.querydsl.domain.Team;
+import study.querydsl.dto.MemberDto;
+import study.querydsl.dto.TeamWithMembersDto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@Transactional
+class TeamQueryRepositoryTest {
+    @Autowired
+    EntityManager em;
+
+    @Autowired
+    TeamQueryRepository teamQueryRepository;
+
+    List<Team> teams;
+
+    @BeforeEach
+    public void before() {
+        teams = List.of(new Team("pageTeam1"), new Team("pageTeam2"), new Team("pageTeam3"));
+        teams.forEach(em::persist);
+        for (int i = 0; i < 9; i++) {
+            em.persist(new Member("pageMember" + i, i, teams.get(i % 3)));
+        }
+        em.flush();
+        em.clear();
+    }
+
+    @Test
+    public void pagesTeamIdsThenFetchesMembers() {
+        Page<Team> page = teamQueryRepository.findWithMembers("pageMember4",
+                PageRequest.of(0, 10, Sort.by(Sort.Order.desc("teamId"))));
+
+        assertThat(page.getTotalElements()).isEqualTo(1);
+        Team team = page.getContent().get(0);
+        assertThat(team.getName()).isEqualTo("pageTeam2");
+        assertThat(Hibernate.isInitialized(team.getMembers())).isTrue();
+        //조건에 걸린 회원만이 아니라 팀의 회원 전체
+        assertThat(team.getMembers()).extracting(Member::getUsername)
+                .containsExactlyInAnyOrder("pageMember1", "pageMember4", "pageMember7");
+    }
+
+    @Test
+    public void keepsIdOrderAcrossPages() {
+        Long lastId = teams.get(2).getId();
+        Page<Team> firstPage = teamQueryRepository.findWithMembers(null, PageRequest.of(0, 2, Sort.by(Sort.Order.desc("teamId"))));
+
+        assertThat(firstPage.getContent()).extracting(Team::getId)
+                .containsExactly(lastId, teams.get(1).getId());
+        assertThat(firstPage.getContent()).allSatisfy(team ->
+                assertThat(team.getMembers()).hasSize(3));
+        assertThat(firstPage.getTotalElements()).isGreaterThanOrEqualTo(3);
+    }
+
+    @Test
+    public void teamsWithMembersDto() {
+        Team empty = new Team("pageTeamEmpty");
+        em.persist(empty);
+
+        Page<TeamWithMembersDto> page = teamQueryRepository.findTeamsWithMembers(
+                PageRequest.of(0, 2, Sort.by(Sort.Order.desc("teamId"))));
+
+        assertThat(page.getContent()).extracting(TeamWithMembersDto::getTeamId)
+                .containsExactly(empty.getId(), teams.get(2).getId());
+        assertThat(page.getContent().get(0).getMembers()).isEmpty();
+        assertThat(page.getContent().get(1).getMembers()).extracting(MemberDto::getUsername)
+                .containsExactly("pageMember2", "pageMember5", "pageMember8");
+    }
+
+    @Test
+    public void forEachTeamWithMembers() {
+        List<TeamWithMembersDto> result = new ArrayList<>();
+        teamQueryRepository.forEachTeamWithMembers(dto -> {
+            if (dto.getTeamName().startsWith("pageTeam")) {
+                result.add(dto);
+            }
+        });
+
+        assertThat(result).extracting(TeamWithMembersDto::getTeamName)
+                .containsExactly("pageTeam1", "pageTeam2", "pageTeam3");
+        assertThat(result.get(0).getMembers()).extracting(MemberDto::getAge)
+                .containsExactly(0, 3, 6);
+    }
+}
@@ -0,0 +1,91 @@
+package study.querydsl.repository;
+
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+import study.querydsl.domain.Member;
+import study.querydsl.domain.Team;
+import study.querydsl.dto.TeamAgeStats;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@Transactional
+class TeamStatsRepositoryTest {
+    @Autowired
+    EntityManager em;
+
+    @Autowired
+    TeamStatsRepository teamStatsRepository;
+
+    @Test
+    public void incrementalStats() {
+        Team teamA = new Team("statsTeamA");
+        Team teamB = new Team("statsTeamB");
+        em.persist(teamA);
+        em.persist(teamB);
+
+        Member member1 = new Member("member1", 10, teamA);
+        Member member2 = new Member("member2", 20, teamA);
+        Member member3 = new Member("member3", 30, teamA);
+        em.persist(member1);
+        em.persist(member2);
+        em.persist(member3);
+        em.flush();
+
+        assertStats("statsTeamA", 3, 60, 10, 30);
+        assertStats("statsTeamB", 0, 0, 0, 0);
+
+        //팀 변경 (최대 나이 회원이 빠져서 teamA는 stale)
+        member3.changeTeam(teamB);
+        em.flush();
+        //refreshStale 전에도 조회 시 stale 팀의 min/max는 다시 구한다
+        assertStats("statsTeamA", 2, 30, 10, 20);
+        teamStatsRepository.refreshStale();
+        assertStats("statsTeamA", 2, 30, 10, 20);
+        assertStats("statsTeamB", 1, 30, 30, 30);
+
+        //최소 나이 회원 삭제 -> stale 처리 후 재계산 (TeamStatsRebuildJob.refreshStale)
+        em.remove(member1);
+        em.flush();
+        assertStats("statsTeamA", 1, 20, 20, 20);
+        teamStatsRepository.refreshStale();
+        assertStats("statsTeamA", 1, 20, 20, 20);
+
+        //마지막 회원 삭제 -> stale 이고 남은 회원이 없으면 0
+        em.remove(member2);
+        em.flush();
+        assertStats("statsTeamA", 0, 0, 0, 0);
+    }
+
+    @Test
+    public void rebuildAll() {
+        Team teamA = new Team("statsTeamA");
+        em.persist(teamA);
+        em.persist(new Member("member1", 10, teamA));
+        em.persist(new Member("member2", 20, teamA));
+        em.flush();
+
+        //벌크 연산은 이벤트가 발생하지 않아 통계가 어긋난다
+        em.createQuery("update Member m set m.age = m.age + 1 where m.team = :team")
+                .setParameter("team", teamA)
+                .executeUpdate();
+        assertStats("statsTeamA", 2, 30, 10, 20);
+
+        teamStatsRepository.rebuildAll();
+        assertStats("statsTeamA", 2, 32, 11, 21);
+    }
+
+    private void assertStats(String teamName, long count, long sum, int min, int max) {
+        TeamAgeStats stats = teamStatsRepository.findAll().stream()
+                .filter(s -> s.getTeamName().equals(teamName))
+                .findFirst()
+                .orElseThrow();
+        assertThat(stats.getCount()).isEqualTo(count);
+        assertThat(stats.getSum()).isEqualTo(sum);
+        assertThat(stats.getMin()).isEqualTo(min);
+        assertThat(stats.getMax()).isEqualTo(max);
+    }
+}
@@ -0,0 +1,67 @@
+package study.querydsl.service;
+
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.querydsl.domain.Member;
+import study.querydsl.dto.MemberIngestRow;
+import study.querydsl.dto.TeamAgeStats;
+import study.querydsl.repository.TeamStatsRepository;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+//StatelessSession이 직접 커밋하므로 @Transactional 롤백 대신 끝나고 지워준다
+@SpringBootTest
+class MemberIngestServiceTest {
+    @Autowired
+    EntityManager em;
+
+    @Autowired
+    TransactionTemplate transactionTemplate;
+
+    @Autowired
+    MemberIngestService memberIngestService;
+
+    @Autowired
+    TeamStatsRepository teamStatsRepository;
+
+    @AfterEach
+    public void cleanUp() {
+        transactionTemplate.executeWithoutResult(status -> {
+            em.createNativeQuery("delete from team_stats where team_id in (select team_id from team where name like 'ingestTeam%')")
+                    .executeUpdate();
+            em.createQuery("delete from Member m where m.username like 'ingest%'").executeUpdate();
+            em.createQuery("delete from Team t where t.name like 'ingestTeam%'").executeUpdate();
+        });
+    }
+
+    @Test
+    public void ingest() {
+        List<MemberIngestRow> rows = new ArrayList<>();
+        for (int i = 0; i < 2500; i++) {
+            rows.add(new MemberIngestRow("ingest" + i, i % 50, i % 2 == 0 ? "ingestTeamA" : "ingestTeamB"));
+        }
+
+        long count = memberIngestService.ingest(rows);
+
+        assertThat(count).isEqualTo(2500);
+        List<Member> members = em.createQuery(
+                        "select m from Member m join fetch m.team t where t.name = 'ingestTeamA'", Member.class)
+                .getResultList();
+        assertThat(members).hasSize(1250);
+
+        TeamAgeStats stats = teamStatsRepository.findAll().stream()
+                .filter(s -> s.getTeamName().equals("ingestTeamA"))
+                .findFirst()
+                .orElseThrow();
+        assertThat(stats.getCount()).isEqualTo(1250);
+        assertThat(stats.getMin()).isEqualTo(0);
+        assertThat(stats.getMax()).isEqualTo(48);
+    }
+}
@@ -0,0 +1,108 @@
+package study.querydsl.shard;
+
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.querydsl.condition.MemberSearchCondition;
+import study.querydsl.domain.Member;
+import study.querydsl.domain.Team;
+import study.querydsl.dto.MemberIngestRow;
+import study.querydsl.dto.MemberTeamDto;
+import study.querydsl.repository.MemberRepository;
+import study.querydsl.service.MemberIngestService;
+
+import javax.sql.DataSource;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+//기본 DB와 샤드 2개 모두 메모리 H2. 애플리케이션의 쓰기 경로(JPA, MemberIngestService)로 저장한 회원이 샤드 검색에 나와야 한다
+@SpringBootTest(properties = {
+        "spring.profiles.active=shard",
+        "spring.datasource.url=jdbc:h2:mem:shardprimary;DB_CLOSE_DELAY=-1",
+        "sharding.datasources[0].url=jdbc:h2:mem:appshard0;DB_CLOSE_DELAY=-1",
+        "sharding.datasources[0].username=sa",
+        "sharding.datasources[1].url=jdbc:h2:mem:appshard1;DB_CLOSE_DELAY=-1",
+        "sharding.datasources[1].username=sa"
+})
+class ShardWriteListenerTest {
+
+    @Autowired
+    EntityManager em;
+
+    @Autowired
+    TransactionTemplate transactionTemplate;
+
+    @Autowired
+    MemberRepository memberRepository;
+
+    @Autowired
+    MemberIngestService memberIngestService;
+
+    @BeforeEach
+    public void before() {
+        for (int i = 0; i < 2; i++) {
+            DataSource shard = new DriverManagerDataSource("jdbc:h2:mem:appshard" + i + ";DB_CLOSE_DELAY=-1", "sa", "");
+            new ResourceDatabasePopulator(new ClassPathResource("db/schema.sql")).execute(shard);
+        }
+    }
+
+    @Test
+    public void savedMembersAreSearchable() {
+        Long teamId = transactionTemplate.execute(status -> {
+            Team team = new Team("shardWriteTeam");
+            em.persist(team);
+            em.persist(new Member("shardWrite1", 10, team));
+            return team.getId();
+        });
+        Member noTeam = memberRepository.save(new Member("shardWrite2", 20));
+
+        MemberSearchCondition byTeam = new MemberSearchCondition();
+        byTeam.setTeamName("shardWriteTeam");
+        assertThat(memberRepository.search(byTeam))
+                .extracting(MemberTeamDto::getUsername, MemberTeamDto::getTeamId)
+                .containsExactly(tuple("shardWrite1", teamId));
+
+        MemberSearchCondition byName = new MemberSearchCondition();
+        byName.setUsername("shardWrite2");
+        assertThat(memberRepository.search(byName))
+                .extracting(MemberTeamDto::getMemberId)
+                .containsExactly(noTeam.getId());
+
+        //팀이 바뀌면 이전 샤드에서 빠지고 새 샤드로
+        transactionTemplate.executeWithoutResult(status ->
+                em.find(Member.class, noTeam.getId()).changeTeam(em.find(Team.class, teamId)));
+        assertThat(memberRepository.search(byTeam))
+                .extracting(MemberTeamDto::getUsername)
+                .containsExactlyInAnyOrder("shardWrite1", "shardWrite2");
+        assertThat(memberRepository.search(byName)).hasSize(1);
+
+        memberRepository.deleteById(noTeam.getId());
+        assertThat(memberRepository.search(byName)).isEmpty();
+    }
+
+    @Test
+    public void ingestedMembersAreSearchable() {
+        memberIngestService.ingest(List.of(
+                new MemberIngestRow("shardIngest1", 30, "shardIngestTeam"),
+                new MemberIngestRow("shardIngest2", 40, "shardIngestTeam"),
+                new MemberIngestRow("shardIngest3", 50, null)));
+
+        MemberSearchCondition byTeam = new MemberSearchCondition();
+        byTeam.setTeamName("shardIngestTeam");
+        assertThat(memberRepository.search(byTeam))
+                .extracting(MemberTeamDto::getUsername)
+                .containsExactly("shardIngest1", "shardIngest2");
+
+        MemberSearchCondition byName = new MemberSearchCondition();
+        byName.setUsername("shardIngest3");
+        assertThat(memberRepository.search(byName)).hasSize(1);
+    }
+}
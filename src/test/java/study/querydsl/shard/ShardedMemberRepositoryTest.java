@@ -0,0 +1,149 @@
+package study.querydsl.shard;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Page;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import study.querydsl.condition.MemberSearchCondition;
+import study.querydsl.config.MemberSearchProperties;
+import study.querydsl.dto.MemberTeamDto;
+import study.querydsl.repository.DeepOffsetException;
+import study.querydsl.repository.MemberSortTranslator;
+import study.querydsl.repository.SearchResultTooLargeException;
+import study.querydsl.repository.UnsupportedSortException;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+//H2 메모리 DB 3개를 샤드로 사용. 스키마는 운영과 같은 db/schema.sql
+class ShardedMemberRepositoryTest {
+
+    List<DataSource> dataSources = new ArrayList<>();
+    MemberSearchProperties searchProperties = new MemberSearchProperties();
+    ShardedMemberRepository shardedMemberRepository;
+    ShardRouter router = new ShardRouter(3);
+
+    @BeforeEach
+    public void before() {
+        for (int i = 0; i < 3; i++) {
+            DataSource dataSource = new DriverManagerDataSource("jdbc:h2:mem:shard" + i + ";DB_CLOSE_DELAY=-1", "sa", "");
+            JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+            jdbcTemplate.execute("drop all objects");
+            new ResourceDatabasePopulator(new ClassPathResource("db/schema.sql")).execute(dataSource);
+            dataSources.add(dataSource);
+        }
+        shardedMemberRepository = new ShardedMemberRepository(dataSources, new MemberSortTranslator(), searchProperties);
+
+        //팀 1~3은 각각 다른 샤드, 회원 id는 팀과 상관없이 섞이도록
+        for (long teamId = 1; teamId <= 3; teamId++) {
+            shardedMemberRepository.upsertTeam(teamId, "team" + teamId);
+        }
+        for (long memberId = 1; memberId <= 30; memberId++) {
+            long teamId = memberId % 3 + 1;
+            shardedMemberRepository.upsertMember(memberId, "member" + memberId, (int) memberId, teamId);
+        }
+    }
+
+    @AfterEach
+    public void after() throws Exception {
+        shardedMemberRepository.destroy();
+    }
+
+    @Test
+    public void membersArePartitionedByTeam() {
+        for (int shard = 0; shard < 3; shard++) {
+            List<Long> teamIds = new JdbcTemplate(dataSources.get(shard))
+                    .queryForList("select distinct team_id from member", Long.class);
+            for (Long teamId : teamIds) {
+                assertThat(router.shardOf(teamId)).isEqualTo(shard);
+            }
+        }
+    }
+
+    @Test
+    public void searchByTeamName() {
+        MemberSearchCondition condition = new MemberSearchCondition();
+        condition.setTeamName("team2");
+        condition.setAgeGoe(10);
+
+        List<MemberTeamDto> result = shardedMemberRepository.search(condition);
+
+        assertThat(result).extracting("teamName").containsOnly("team2");
+        assertThat(result).extracting("memberId").containsExactly(10L, 13L, 16L, 19L, 22L, 25L, 28L);
+    }
+
+    @Test
+    public void scatterGatherPage() {
+        MemberSearchCondition condition = new MemberSearchCondition();
+        condition.setAgeLoe(20);
+
+        Page<MemberTeamDto> page = shardedMemberRepository.searchPage(condition, PageRequest.of(1, 7));
+
+        assertThat(page.getTotalElements()).isEqualTo(20);
+        assertThat(page.getContent()).extracting("memberId").containsExactly(8L, 9L, 10L, 11L, 12L, 13L, 14L);
+    }
+
+    @Test
+    public void sortedPageMergesAcrossShards() {
+        MemberSearchCondition condition = new MemberSearchCondition();
+        condition.setAgeLoe(20);
+
+        Page<MemberTeamDto> page = shardedMemberRepository.searchPage(condition,
+                PageRequest.of(1, 5, Sort.by(Sort.Direction.DESC, "age")));
+
+        assertThat(page.getTotalElements()).isEqualTo(20);
+        assertThat(page.getContent()).extracting("memberId").containsExactly(15L, 14L, 13L, 12L, 11L);
+    }
+
+    @Test
+    public void sortByUsernameMergesAsStrings() {
+        Page<MemberTeamDto> page = shardedMemberRepository.searchPage(new MemberSearchCondition(),
+                PageRequest.of(0, 4, Sort.by("username")));
+
+        assertThat(page.getContent()).extracting("username")
+                .containsExactly("member1", "member10", "member11", "member12");
+    }
+
+    @Test
+    public void unsupportedSortIsRejected() {
+        assertThatThrownBy(() -> shardedMemberRepository.searchPage(new MemberSearchCondition(),
+                PageRequest.of(0, 4, Sort.by("teamName"))))
+                .isInstanceOf(UnsupportedSortException.class);
+        assertThatThrownBy(() -> shardedMemberRepository.searchPage(new MemberSearchCondition(),
+                PageRequest.of(0, 4, Sort.by("age", "username"))))
+                .isInstanceOf(UnsupportedSortException.class);
+    }
+
+    @Test
+    public void changingTeamMovesMemberToItsShard() {
+        //1번 회원은 팀 2 → 팀 1로
+        shardedMemberRepository.upsertMember(1L, "moved", 1, 1L);
+
+        MemberSearchCondition condition = new MemberSearchCondition();
+        condition.setUsername("moved");
+        assertThat(shardedMemberRepository.search(condition)).extracting("teamId").containsExactly(1L);
+        assertThat(shardedMemberRepository.searchPage(new MemberSearchCondition(), PageRequest.of(0, 100))
+                .getTotalElements()).isEqualTo(30);
+    }
+
+    @Test
+    public void limitsFollowSearchProperties() {
+        searchProperties.setMaxResults(10);
+        assertThatThrownBy(() -> shardedMemberRepository.search(new MemberSearchCondition()))
+                .isInstanceOf(SearchResultTooLargeException.class);
+
+        //샤드마다 offset + size 건을 읽어야 하므로 깊은 페이지는 거절
+        assertThatThrownBy(() -> shardedMemberRepository.searchPage(new MemberSearchCondition(), PageRequest.of(100, 100)))
+                .isInstanceOf(DeepOffsetException.class);
+    }
+}
@@ -0,0 +1,11 @@
+select m1_0.id,m1_0.age,m1_0.team_id,m1_0.username,m1_0.version from member m1_0 where m1_0.username in (?,?,?,?)
+    SELECT
+        "M1_0"."ID",
+        "M1_0"."AGE",
+        "M1_0"."TEAM_ID",
+        "M1_0"."USERNAME",
+        "M1_0"."VERSION"
+    FROM "PUBLIC"."MEMBER" "M1_0"
+        /* PUBLIC.IDX_MEMBER_USERNAME: USERNAME IN('kim0042', 'lee0042', 'park0042', 'park0042') */
+    WHERE "M1_0"."USERNAME" IN('kim0042', 'lee0042', 'park0042', 'park0042')
+
@@ -0,0 +1,10 @@
+select m1_0.id from member m1_0 where m1_0.id>? order by m1_0.id fetch first ? rows only
+    SELECT
+        "M1_0"."ID"
+    FROM "PUBLIC"."MEMBER" "M1_0"
+        /* PUBLIC.PRIMARY_KEY: ID > CAST(100 AS BIGINT) */
+    WHERE "M1_0"."ID" > CAST(100 AS BIGINT)
+    ORDER BY 1
+    FETCH FIRST 10 ROWS ONLY
+    /* index sorted */
+
@@ -0,0 +1,21 @@
+select m1_0.id,m1_0.username,m1_0.age,t1_0.id,t1_0.name from member m1_0 left join team t1_0 on t1_0.id=m1_0.team_id where t1_0.name=? and m1_0.age>=? and m1_0.age<=?
+    SELECT
+        "M1_0"."ID",
+        "M1_0"."USERNAME",
+        "M1_0"."AGE",
+        "T1_0"."ID",
+        "T1_0"."NAME"
+    FROM "PUBLIC"."MEMBER" "M1_0"
+        /* PUBLIC.IDX_MEMBER_AGE: AGE <= 40
+            AND AGE >= 30
+         */
+        /* WHERE (M1_0.AGE <= 40)
+            AND (M1_0.AGE >= 30)
+        */
+    LEFT OUTER JOIN "PUBLIC"."TEAM" "T1_0"
+        /* PUBLIC.PRIMARY_KEY: ID = M1_0.TEAM_ID */
+        ON "T1_0"."ID" = "M1_0"."TEAM_ID"
+    WHERE ("M1_0"."AGE" <= 40)
+        AND ("T1_0"."NAME" = 'team3')
+        AND ("M1_0"."AGE" >= 30)
+
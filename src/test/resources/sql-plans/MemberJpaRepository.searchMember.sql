@@ -0,0 +1,22 @@
+select m1_0.id,m1_0.age,m1_0.team_id,m1_0.username,m1_0.version from member m1_0 where m1_0.team_id in (select t2_0.id from team t2_0 where t2_0.name=?) and m1_0.age>=? and m1_0.age<=?
+    SELECT
+        "M1_0"."ID",
+        "M1_0"."AGE",
+        "M1_0"."TEAM_ID",
+        "M1_0"."USERNAME",
+        "M1_0"."VERSION"
+    FROM "PUBLIC"."MEMBER" "M1_0"
+        /* PUBLIC.FKCJTE2JN9PVO9UD2HYFGWCJA0K_INDEX: TEAM_ID IN(SELECT DISTINCT
+            T2_0.ID
+        FROM PUBLIC.TEAM T2_0
+            /* PUBLIC.TEAM.tableScan */
+        WHERE T2_0.NAME = 'team3')
+         */
+    WHERE ("M1_0"."AGE" <= 40)
+        AND ("M1_0"."AGE" >= 30)
+        AND ("M1_0"."TEAM_ID" IN(    SELECT DISTINCT
+            "T2_0"."ID"
+        FROM "PUBLIC"."TEAM" "T2_0"
+            /* PUBLIC.TEAM.tableScan */
+        WHERE "T2_0"."NAME" = 'team3'))
+
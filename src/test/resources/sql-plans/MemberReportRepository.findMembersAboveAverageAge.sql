@@ -0,0 +1,27 @@
+select m1_0.id,m1_0.username,m1_0.age,t1_0.id,t1_0.name from member m1_0 left join team t1_0 on t1_0.id=m1_0.team_id join (select avg(cast(m2_0.age as float(53))) from member m2_0) s1_0(avgAge) on m1_0.age>s1_0.avgAge order by m1_0.age desc,m1_0.id
+    SELECT
+        "M1_0"."ID",
+        "M1_0"."USERNAME",
+        "M1_0"."AGE",
+        "T1_0"."ID",
+        "T1_0"."NAME"
+    FROM "PUBLIC"."MEMBER" "M1_0"
+        /* PUBLIC.IDX_MEMBER_AGE */
+    LEFT OUTER JOIN "PUBLIC"."TEAM" "T1_0"
+        /* PUBLIC.PRIMARY_KEY: ID = M1_0.TEAM_ID */
+        ON "T1_0"."ID" = "M1_0"."TEAM_ID"
+    INNER JOIN (
+        SELECT
+            AVG(CAST("M2_0"."AGE" AS FLOAT(53)))
+        FROM "PUBLIC"."MEMBER" "M2_0"
+    ) "S1_0"("AVGAGE")
+        /* SELECT
+            AVG(CAST(M2_0.AGE AS FLOAT(53)))
+        FROM PUBLIC.MEMBER M2_0
+            /* PUBLIC.IDX_MEMBER_AGE */
+        HAVING AVG(CAST(M2_0.AGE AS FLOAT(53))) <= ?1: AVGAGE < M1_0.AGE
+         */
+        ON "M1_0"."AGE" > "S1_0"."AVGAGE"
+    ORDER BY 3 DESC, 1
+    /* index sorted: 1 of 2 columns */
+
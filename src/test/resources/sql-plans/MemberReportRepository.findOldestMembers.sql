@@ -0,0 +1,27 @@
+select m1_0.id,m1_0.username,m1_0.age,t1_0.id,t1_0.name from member m1_0 left join team t1_0 on t1_0.id=m1_0.team_id join (select max(m2_0.age) from member m2_0) s1_0(maxAge) on m1_0.age=s1_0.maxAge order by m1_0.id
+    SELECT
+        "M1_0"."ID",
+        "M1_0"."USERNAME",
+        "M1_0"."AGE",
+        "T1_0"."ID",
+        "T1_0"."NAME"
+    FROM "PUBLIC"."MEMBER" "M1_0"
+        /* PUBLIC.PRIMARY_KEY */
+    LEFT OUTER JOIN "PUBLIC"."TEAM" "T1_0"
+        /* PUBLIC.PRIMARY_KEY: ID = M1_0.TEAM_ID */
+        ON "T1_0"."ID" = "M1_0"."TEAM_ID"
+    INNER JOIN (
+        SELECT
+            MAX("M2_0"."AGE")
+        FROM "PUBLIC"."MEMBER" "M2_0"
+    ) "S1_0"("MAXAGE")
+        /* SELECT
+            MAX(M2_0.AGE)
+        FROM PUBLIC.MEMBER M2_0
+            /* PUBLIC.IDX_MEMBER_AGE */
+        HAVING MAX(M2_0.AGE) IS NOT DISTINCT FROM ?1: MAXAGE = M1_0.AGE
+         */
+        ON "M1_0"."AGE" = "S1_0"."MAXAGE"
+    ORDER BY 1
+    /* index sorted */
+
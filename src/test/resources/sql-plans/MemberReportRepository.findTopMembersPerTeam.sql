@@ -0,0 +1,38 @@
+select r1_0.memberId,r1_0.username,r1_0.age,r1_0.teamId,r1_0.teamName from (select m1_0.id,m1_0.username,m1_0.age,t1_0.id,t1_0.name,row_number() over(partition by t1_0.id order by m1_0.age desc,m1_0.id) from member m1_0 join team t1_0 on t1_0.id=m1_0.team_id) r1_0(memberId,username,age,teamId,teamName,rowNumber) where r1_0.rowNumber<=? order by r1_0.teamId,r1_0.rowNumber
+    SELECT
+        "R1_0"."MEMBERID",
+        "R1_0"."USERNAME",
+        "R1_0"."AGE",
+        "R1_0"."TEAMID",
+        "R1_0"."TEAMNAME"
+    FROM (
+        SELECT
+            "M1_0"."ID",
+            "M1_0"."USERNAME",
+            "M1_0"."AGE",
+            "T1_0"."ID",
+            "T1_0"."NAME",
+            ROW_NUMBER() OVER (PARTITION BY "T1_0"."ID" ORDER BY "M1_0"."AGE" DESC, "M1_0"."ID")
+        FROM "PUBLIC"."MEMBER" "M1_0"
+        INNER JOIN "PUBLIC"."TEAM" "T1_0"
+            ON 1=1
+        WHERE "T1_0"."ID" = "M1_0"."TEAM_ID"
+    ) "R1_0"("MEMBERID", "USERNAME", "AGE", "TEAMID", "TEAMNAME", "ROWNUMBER")
+        /* SELECT
+            M1_0.ID,
+            M1_0.USERNAME,
+            M1_0.AGE,
+            T1_0.ID,
+            T1_0.NAME,
+            ROW_NUMBER() OVER (PARTITION BY T1_0.ID ORDER BY M1_0.AGE DESC, M1_0.ID)
+        FROM PUBLIC.MEMBER M1_0
+            /* PUBLIC.MEMBER.tableScan */
+        INNER JOIN PUBLIC.TEAM T1_0
+            /* PUBLIC.PRIMARY_KEY: ID = M1_0.TEAM_ID */
+            ON 1=1
+        WHERE T1_0.ID = M1_0.TEAM_ID
+        QUALIFY ?1 IS NOT DISTINCT FROM ?1: ROWNUMBER <= CAST(3 AS BIGINT)
+         */
+    WHERE "R1_0"."ROWNUMBER" <= CAST(3 AS BIGINT)
+    ORDER BY 4, "R1_0"."ROWNUMBER"
+
@@ -0,0 +1,27 @@
+select member.id, member.username, member.age, team.id, team.name
+from member member
+left join team team
+on member.team_id = team.id
+where team.name = ? and member.age >= ? and member.age <= ?
+limit ?
+    SELECT
+        "MEMBER"."ID",
+        "MEMBER"."USERNAME",
+        "MEMBER"."AGE",
+        "TEAM"."ID",
+        "TEAM"."NAME"
+    FROM "PUBLIC"."MEMBER" "MEMBER"
+        /* PUBLIC.IDX_MEMBER_AGE: AGE <= 40
+            AND AGE >= 30
+         */
+        /* WHERE (MEMBER.AGE <= 40)
+            AND (MEMBER.AGE >= 30)
+        */
+    LEFT OUTER JOIN "PUBLIC"."TEAM" "TEAM"
+        /* PUBLIC.PRIMARY_KEY: ID = MEMBER.TEAM_ID */
+        ON "MEMBER"."TEAM_ID" = "TEAM"."ID"
+    WHERE ("MEMBER"."AGE" <= 40)
+        AND ("TEAM"."NAME" = 'team3')
+        AND ("MEMBER"."AGE" >= 30)
+    FETCH FIRST 1001 ROWS ONLY
+
@@ -0,0 +1,34 @@
+select t1_0.id from team t1_0 order by t1_0.id offset ? rows fetch first ? rows only
+    SELECT
+        "T1_0"."ID"
+    FROM "PUBLIC"."TEAM" "T1_0"
+        /* PUBLIC.PRIMARY_KEY */
+    ORDER BY 1
+    OFFSET 0 ROWS
+    FETCH NEXT 3 ROWS ONLY
+    /* index sorted */
+
+select t1_0.id,t1_0.name,m1_0.id,m1_0.username,m1_0.age from team t1_0 left join member m1_0 on t1_0.id=m1_0.team_id where t1_0.id in (?,?,?,?) order by t1_0.id,m1_0.id
+    SELECT
+        "T1_0"."ID",
+        "T1_0"."NAME",
+        "M1_0"."ID",
+        "M1_0"."USERNAME",
+        "M1_0"."AGE"
+    FROM "PUBLIC"."TEAM" "T1_0"
+        /* PUBLIC.PRIMARY_KEY: ID IN(1, 2, 3, 3) */
+        /* WHERE T1_0.ID IN(1, 2, 3, 3)
+        */
+    LEFT OUTER JOIN "PUBLIC"."MEMBER" "M1_0"
+        /* PUBLIC.FKCJTE2JN9PVO9UD2HYFGWCJA0K_INDEX: TEAM_ID = T1_0.ID */
+        ON "T1_0"."ID" = "M1_0"."TEAM_ID"
+    WHERE "T1_0"."ID" IN(1, 2, 3, 3)
+    ORDER BY 1, 3
+
+select count(t1_0.id) from team t1_0
+    SELECT
+        COUNT("T1_0"."ID")
+    FROM "PUBLIC"."TEAM" "T1_0"
+        /* PUBLIC.TEAM.tableScan */
+    /* direct lookup */
+
@@ -0,0 +1,34 @@
+select t1_0.id from team t1_0 where exists(select 1 from member m1_0 where m1_0.team_id=t1_0.id and m1_0.username=?) order by t1_0.id offset ? rows fetch first ? rows only
+    SELECT
+        "T1_0"."ID"
+    FROM "PUBLIC"."TEAM" "T1_0"
+        /* PUBLIC.PRIMARY_KEY */
+    WHERE EXISTS(    SELECT
+            1
+        FROM "PUBLIC"."MEMBER" "M1_0"
+            /* PUBLIC.IDX_MEMBER_USERNAME: USERNAME = 'kim0042' */
+        WHERE ("M1_0"."USERNAME" = 'kim0042')
+            AND ("M1_0"."TEAM_ID" = "T1_0"."ID"))
+    ORDER BY 1
+    OFFSET 0 ROWS
+    FETCH NEXT 3 ROWS ONLY
+    /* index sorted */
+
+select t1_0.id,m1_0.team_id,m1_0.id,m1_0.age,m1_0.username,m1_0.version,t1_0.name from team t1_0 left join member m1_0 on t1_0.id=m1_0.team_id where t1_0.id=?
+    SELECT
+        "T1_0"."ID",
+        "M1_0"."TEAM_ID",
+        "M1_0"."ID",
+        "M1_0"."AGE",
+        "M1_0"."USERNAME",
+        "M1_0"."VERSION",
+        "T1_0"."NAME"
+    FROM "PUBLIC"."TEAM" "T1_0"
+        /* PUBLIC.PRIMARY_KEY: ID = CAST(4 AS BIGINT) */
+        /* WHERE T1_0.ID = CAST(4 AS BIGINT)
+        */
+    LEFT OUTER JOIN "PUBLIC"."MEMBER" "M1_0"
+        /* PUBLIC.FKCJTE2JN9PVO9UD2HYFGWCJA0K_INDEX: TEAM_ID = T1_0.ID */
+        ON "T1_0"."ID" = "M1_0"."TEAM_ID"
+    WHERE "T1_0"."ID" = CAST(4 AS BIGINT)
+